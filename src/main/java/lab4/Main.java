@@ -1,28 +1,59 @@
 package lab4;
 
 import lab4.csv.CsvParser;
+import lab4.csv.RosterSampler;
 import lab4.model.Person;
+import lab4.stats.RosterEstimate;
 import com.opencsv.exceptions.CsvValidationException;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Основной класс приложения для демонстрации работы парсера.
  */
 public class Main {
+    private static final String DEFAULT_CSV_FILE = "foreign_names.csv";
+    private static final String SAMPLE_OPTION = "--sample";
+    private static final String USAGE = "Использование: lab4.Main [путь к CSV файлу] [--sample N], N > 0";
 
     /**
      * Точка входа в приложение.
      *
-     * @param args аргументы командной строки (не используются)
+     * @param args аргументы командной строки: необязательный путь к CSV файлу
+     *             и необязательный {@code --sample N} для приблизительной статистики по выборке
      */
     public static void main(String[] args) {
         try {
             CsvParser parser = new CsvParser();
+            String csvFile = args.length > 0 && !args[0].equals(SAMPLE_OPTION) ? args[0] : DEFAULT_CSV_FILE;
 
-            // Парсим CSV файл
-            List<Person> persons = parser.parseCsvFile("foreign_names.csv");
+            int sampleOption = List.of(args).indexOf(SAMPLE_OPTION);
+            if (sampleOption >= 0) {
+                int sampleSize = parseSampleSize(args, sampleOption + 1);
+                if (sampleSize <= 0) {
+                    System.err.println(USAGE);
+                    return;
+                }
+                // Быстрая проверка больших выгрузок без полного парсинга
+                printEstimate(new RosterSampler().sample(csvFile, CsvParser.DEFAULT_SEPARATOR, sampleSize));
+                return;
+            }
+
+            // Парсим CSV файл потоком, чтобы зафиксировать время до первой записи
+            List<Person> persons = new ArrayList<>();
+            Instant[] firstRowAt = new Instant[1];
+            parser.forEachPerson(csvFile, CsvParser.DEFAULT_SEPARATOR, person -> {
+                if (firstRowAt[0] == null) {
+                    firstRowAt[0] = Instant.now();
+                }
+                persons.add(person);
+            });
+            printTimeToFirstRow(firstRowAt[0]);
 
             // Выводим информацию о всех сотрудниках
             System.out.println("Найдено сотрудников: " + persons.size());
@@ -49,6 +80,59 @@ public class Main {
         }
     }
 
+    /**
+     * Читает размер выборки из аргумента после {@code --sample}.
+     *
+     * @return размер выборки или -1, если значение отсутствует или не является положительным числом
+     */
+    private static int parseSampleSize(String[] args, int index) {
+        if (index >= args.length) {
+            return -1;
+        }
+        try {
+            int sampleSize = Integer.parseInt(args[index]);
+            return sampleSize > 0 ? sampleSize : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Выводит время от старта JVM до первой распарсенной записи.
+     * Показывает стоимость запуска пакетного режима без тяжелых зависимостей.
+     *
+     * @param firstRowAt момент получения первой записи или null, если записей нет
+     */
+    private static void printTimeToFirstRow(Instant firstRowAt) {
+        if (firstRowAt == null) {
+            return;
+        }
+        // Время старта JVM из RuntimeMXBean точнее, чем время создания процесса ОС
+        long startMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.printf("Время до первой записи: %d мс%n", firstRowAt.toEpochMilli() - startMillis);
+    }
+
+    /**
+     * Выводит приблизительную статистику по выборке с 95% доверительными интервалами.
+     *
+     * @param estimate оценка статистики
+     */
+    private static void printEstimate(RosterEstimate estimate) {
+        System.out.println("Приблизительная статистика (выборка " + estimate.getSampleSize() + " записей):");
+        System.out.printf("- Всего сотрудников: ~%.0f [%.0f; %.0f]%n", estimate.getCount().getEstimate(),
+                estimate.getCount().getLower(), estimate.getCount().getUpper());
+        System.out.printf("- Мужчин: %.1f%% [%.1f%%; %.1f%%]%n", estimate.getMaleShare().getEstimate() * 100,
+                estimate.getMaleShare().getLower() * 100, estimate.getMaleShare().getUpper() * 100);
+        System.out.printf("- Средняя зарплата: %.2f [%.2f; %.2f]%n", estimate.getSalaryMean().getEstimate(),
+                estimate.getSalaryMean().getLower(), estimate.getSalaryMean().getUpper());
+        System.out.println("- Доли подразделений:");
+        for (Map.Entry<String, RosterEstimate.Interval> entry : estimate.getDivisionShares().entrySet()) {
+            System.out.printf("  %s: %.1f%% [%.1f%%; %.1f%%]%n", entry.getKey(),
+                    entry.getValue().getEstimate() * 100,
+                    entry.getValue().getLower() * 100, entry.getValue().getUpper() * 100);
+        }
+    }
+
     /**
      * Выводит статистику по списку сотрудников.
      *
@@ -0,0 +1,165 @@
+package lab4.csv;
+
+import com.opencsv.CSVParser;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Соответствие колонок CSV файла полям сотрудника.
+ * <p>
+ * Строится один раз по заголовку файла: названия колонок нормализуются и сопоставляются
+ * со списком синонимов, лишние колонки игнорируются. При разборе строк используются только
+ * заранее вычисленные номера колонок, без поиска по названиям.
+ * Если в заголовке не распознано ни одной колонки, используется прежний порядок
+ * {@code id;name;gender;birthDate;division;salary}. Если распознана часть колонок, каждая из них
+ * стоит на своей позиции из этого порядка и колонок не меньше шести, нераспознанные поля берутся
+ * по своим позициям; иначе заголовок считается противоречивым.
+ */
+public final class ColumnMapping {
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int GENDER = 2;
+    private static final int BIRTH_DATE = 3;
+    private static final int DIVISION = 4;
+    private static final int SALARY = 5;
+    private static final String[] FIELD_NAMES = {"id", "name", "gender", "birthDate", "division", "salary"};
+
+    private static final Map<String, Integer> SYNONYMS = new HashMap<>();
+
+    static {
+        register(ID, "id", "employeeid", "personid", "табельныйномер", "номер");
+        register(NAME, "name", "fullname", "employeename", "фио", "имя");
+        register(GENDER, "gender", "sex", "пол");
+        register(BIRTH_DATE, "birthdate", "dateofbirth", "dob", "birthday", "датарождения");
+        register(DIVISION, "division", "department", "dept", "подразделение", "отдел");
+        register(SALARY, "salary", "wage", "pay", "зарплата", "оклад");
+    }
+
+    /**
+     * Позиционное соответствие по умолчанию.
+     */
+    public static final ColumnMapping DEFAULT = new ColumnMapping(new int[]{0, 1, 2, 3, 4, 5});
+
+    final int id;
+    final int name;
+    final int gender;
+    final int birthDate;
+    final int division;
+    final int salary;
+    final int minFields;
+
+    private ColumnMapping(int[] columns) {
+        this.id = columns[ID];
+        this.name = columns[NAME];
+        this.gender = columns[GENDER];
+        this.birthDate = columns[BIRTH_DATE];
+        this.division = columns[DIVISION];
+        this.salary = columns[SALARY];
+        this.minFields = Arrays.stream(columns).max().orElse(0) + 1;
+    }
+
+    /**
+     * Строит соответствие по заголовку файла.
+     *
+     * @param header поля заголовка или null, если файл пуст
+     * @return соответствие колонок
+     * @throws CsvValidationException если заголовок распознан частично, в нем нет обязательных колонок
+     *                                и позиционный порядок к нему не подходит
+     */
+    public static ColumnMapping compile(String[] header) throws CsvValidationException {
+        if (header == null) {
+            return DEFAULT;
+        }
+
+        int[] columns = new int[FIELD_NAMES.length];
+        Arrays.fill(columns, -1);
+        boolean recognized = false;
+
+        for (int column = 0; column < header.length; column++) {
+            Integer field = SYNONYMS.get(normalize(header[column]));
+            if (field != null && columns[field] < 0) {
+                columns[field] = column;
+                recognized = true;
+            }
+        }
+
+        if (!recognized) {
+            return DEFAULT;
+        }
+
+        List<String> missing = new ArrayList<>();
+        boolean positional = header.length >= FIELD_NAMES.length;
+        for (int field = 0; field < columns.length; field++) {
+            if (columns[field] < 0) {
+                missing.add(FIELD_NAMES[field]);
+            } else if (columns[field] != field) {
+                positional = false;
+            }
+        }
+        if (!missing.isEmpty()) {
+            if (!positional) {
+                throw new CsvValidationException("В заголовке нет обязательных колонок: " + missing);
+            }
+            // Заголовок другого экспортера в прежнем порядке: недостающие поля берутся по позиции
+            for (int field = 0; field < columns.length; field++) {
+                if (columns[field] < 0) {
+                    columns[field] = field;
+                }
+            }
+        }
+
+        return new ColumnMapping(columns);
+    }
+
+    /**
+     * Строит соответствие по текстовой строке заголовка.
+     *
+     * @param headerLine строка заголовка; null или пустая строка означают пустой файл
+     * @param lineParser парсер строки с нужным разделителем
+     * @return соответствие колонок
+     * @throws IOException если строка не разбирается или заголовок противоречив
+     */
+    static ColumnMapping compileLine(String headerLine, CSVParser lineParser) throws IOException {
+        String text = headerLine == null ? "" : headerLine.trim();
+        try {
+            return compile(text.isEmpty() ? null : lineParser.parseLine(text));
+        } catch (CsvValidationException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static void register(int field, String... names) {
+        for (String name : names) {
+            SYNONYMS.put(name, field);
+        }
+    }
+
+    /**
+     * Нормализует название колонки: нижний регистр, без BOM, пробелов и знаков препинания.
+     */
+    private static String normalize(String column) {
+        if (column == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(column.length());
+        for (char c : column.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ColumnMapping{id=%d, name=%d, gender=%d, birthDate=%d, division=%d, salary=%d}",
+                id, name, gender, birthDate, division, salary);
+    }
+}
@@ -0,0 +1,308 @@
+package lab4.csv;
+
+import lab4.model.Person;
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Непрерывная загрузка CSV файлов из каталога.
+ * <p>
+ * Отслеживает появление новых файлов и дописывание в существующие через {@link WatchService},
+ * хранит смещение для каждого файла и парсит только новые полные строки. Первая строка каждого
+ * файла считается заголовком; если в нем распознаны не все обязательные колонки, файл пропускается
+ * до его замены. Незавершенная последняя строка буферизуется до следующего дописывания.
+ * Если файл заменен другим (изменился ключ файла в файловой системе или время создания) или стал
+ * короче сохраненного смещения, он читается заново с начала. Состояние удаленных файлов забывается.
+ * Ошибка чтения одного файла (например, файл удален во время чтения) выводится в лог
+ * и не останавливает наблюдение.
+ * <p>
+ * Поля с переводом строки внутри кавычек не поддерживаются: запись должна занимать одну строку.
+ */
+public class CsvDirectoryWatcher implements Closeable {
+    private static final String CSV_EXTENSION = ".csv";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final CsvParser parser;
+    private final CSVParser lineParser;
+    private final Consumer<? super Person> sink;
+    private final Map<Path, FileState> files = new HashMap<>();
+    private volatile WatchService watchService;
+    private volatile boolean closed;
+
+    /**
+     * Конструктор с разделителем по умолчанию.
+     *
+     * @param directory отслеживаемый каталог
+     * @param sink обработчик новых сотрудников (агрегаты, индексы)
+     */
+    public CsvDirectoryWatcher(Path directory, Consumer<? super Person> sink) {
+        this(directory, CsvParser.DEFAULT_SEPARATOR, sink);
+    }
+
+    /**
+     * Конструктор для создания наблюдателя за каталогом.
+     *
+     * @param directory отслеживаемый каталог
+     * @param separator разделитель полей
+     * @param sink обработчик новых сотрудников (агрегаты, индексы)
+     * @throws IllegalArgumentException если каталог не существует или обработчик null
+     */
+    public CsvDirectoryWatcher(Path directory, char separator, Consumer<? super Person> sink) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Каталог не найден: " + directory);
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("Обработчик не может быть null");
+        }
+        this.directory = directory;
+        this.parser = new CsvParser();
+        this.lineParser = new CSVParserBuilder().withSeparator(separator).build();
+        this.sink = sink;
+    }
+
+    /**
+     * Однократно просматривает каталог и загружает новые данные из всех CSV файлов.
+     *
+     * @return количество загруженных сотрудников
+     * @throws IOException если произошла ошибка чтения
+     */
+    public long pollOnce() throws IOException {
+        long count = 0;
+        Set<Path> present = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                present.add(file);
+                count += ingestSafely(file);
+            }
+        }
+        synchronized (this) {
+            // События удаления могли быть потеряны
+            files.keySet().retainAll(present);
+        }
+        return count;
+    }
+
+    /**
+     * Запускает цикл наблюдения в текущем потоке до вызова {@link #close()}.
+     * Перед ожиданием событий загружает все уже существующие файлы.
+     *
+     * @param pollTimeoutMillis максимальное время ожидания одного события
+     * @throws IOException если произошла ошибка чтения каталога или его регистрации
+     */
+    public void run(long pollTimeoutMillis) throws IOException {
+        WatchService service = directory.getFileSystem().newWatchService();
+        watchService = service;
+        try {
+            directory.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+
+            pollOnce();
+
+            while (!closed) {
+                WatchKey key = service.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // События потеряны - перечитываем все файлы по сохраненным смещениям
+                        pollOnce();
+                    } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        forget(directory.resolve((Path) event.context()));
+                    } else {
+                        ingestSafely(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    break;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Наблюдение остановлено через close()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            service.close();
+        }
+    }
+
+    /**
+     * Возвращает смещение, до которого файл уже обработан.
+     *
+     * @param file путь к файлу
+     * @return смещение в байтах или 0, если файл еще не читался
+     */
+    public synchronized long getOffset(Path file) {
+        FileState state = files.get(file);
+        return state == null ? 0 : state.offset;
+    }
+
+    /**
+     * Останавливает цикл наблюдения.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        WatchService service = watchService;
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    /**
+     * Забывает состояние удаленного файла.
+     */
+    private synchronized void forget(Path file) {
+        files.remove(file);
+    }
+
+    /**
+     * Загружает файл; ошибка чтения выводится в лог и не прерывает наблюдение за остальными файлами.
+     */
+    private long ingestSafely(Path file) {
+        try {
+            return ingest(file);
+        } catch (NoSuchFileException e) {
+            forget(file);
+            return 0;
+        } catch (IOException e) {
+            System.err.printf("Ошибка чтения файла %s: %s%n", file, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Загружает новые байты файла начиная с сохраненного смещения.
+     */
+    private synchronized long ingest(Path file) throws IOException {
+        if (!Files.isRegularFile(file) || !file.getFileName().toString().toLowerCase().endsWith(CSV_EXTENSION)) {
+            return 0;
+        }
+
+        FileState state = files.computeIfAbsent(file, f -> new FileState());
+        long count = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            // Ключ файла (устройство и inode) есть не на всех файловых системах
+            Object identity = attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+            long size = channel.size();
+            if (!Objects.equals(identity, state.identity) || size < state.offset) {
+                // Файл заменен или перезаписан - начинаем сначала
+                state.reset();
+                state.identity = identity;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            channel.position(state.offset);
+
+            int read;
+            while ((read = channel.read(buffer)) > 0) {
+                buffer.flip();
+                byte[] bytes = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (bytes[i] == '\n') {
+                        state.pending.write(bytes, lineStart, i - lineStart);
+                        count += processLine(file, state);
+                        lineStart = i + 1;
+                    }
+                }
+                state.pending.write(bytes, lineStart, read - lineStart);
+                state.offset += read;
+                buffer.clear();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Парсит накопленную полную строку и передает сотрудника в обработчик.
+     * Строки файла с неподходящим заголовком пропускаются.
+     */
+    private int processLine(Path file, FileState state) {
+        String line = new String(state.pending.toByteArray(), StandardCharsets.UTF_8);
+        state.pending.reset();
+        state.lineNumber++;
+
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        if (state.lineNumber == 1) {
+            try {
+                // Заголовок файла задает соответствие колонок
+                state.mapping = ColumnMapping.compileLine(line, lineParser);
+            } catch (IOException e) {
+                // Без соответствия колонок строки разобрались бы по чужим позициям
+                state.rejected = true;
+                System.err.printf("Файл %s пропущен: %s%n", file, e.getMessage());
+            }
+            return 0;
+        }
+        if (state.rejected) {
+            return 0;
+        }
+
+        try {
+            if (line.trim().isEmpty()) {
+                return 0;
+            }
+
+            Person person = parser.parsePerson(lineParser.parseLine(line), state.mapping, state.lineNumber);
+            sink.accept(person);
+            return 1;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.printf("Ошибка в строке %d: %s%n", state.lineNumber, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Состояние чтения одного файла.
+     */
+    private static final class FileState {
+        private Object identity;
+        private long offset;
+        private int lineNumber;
+        private ColumnMapping mapping = ColumnMapping.DEFAULT;
+        private boolean rejected;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+        private void reset() {
+            offset = 0;
+            lineNumber = 0;
+            mapping = ColumnMapping.DEFAULT;
+            rejected = false;
+            pending.reset();
+        }
+    }
+}
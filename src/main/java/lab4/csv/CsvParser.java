@@ -2,21 +2,59 @@ package lab4.csv;
 
 import lab4.model.Division;
 import lab4.model.Person;
+import lab4.store.OffHeapPersonStore;
 import lab4.util.DateUtils;
+import lab4.util.ParallelGzipInputStream;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.exceptions.CsvValidationException;
 
 import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
 
 /**
  * Класс для парсинга CSV файлов с данными о сотрудниках.
  */
 public class CsvParser {
-    private static final char DEFAULT_SEPARATOR = ';';
-    private static final Map<String, Division> DIVISION_CACHE = new HashMap<>();
+    /**
+     * Разделитель полей по умолчанию для всех CSV выгрузок.
+     */
+    public static final char DEFAULT_SEPARATOR = ';';
+
+    private static final int GZIP_MAGIC = 0x1f8b;
+    private static final int ZIP_MAGIC = 0x504b;
+    private static final int COMPRESSED_BUFFER_SIZE = 64 * 1024;
+    private static final int RANGE_BUFFER_SIZE = 64 * 1024;
+    private static final Map<String, Division> DIVISION_CACHE = new ConcurrentHashMap<>();
+
+    private final ParseResultCache resultCache;
+
+    /**
+     * Конструктор парсера без кэша результатов: каждый вызов парсит файл заново.
+     */
+    public CsvParser() {
+        this(null);
+    }
+
+    /**
+     * Конструктор парсера с кэшем результатов.
+     * Повторный {@link #parseCsvFile(String, char)} неизмененного файла возвращает
+     * общий неизменяемый список из кэша.
+     *
+     * @param resultCache кэш результатов или null
+     */
+    public CsvParser(ParseResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
 
     /**
      * Читает CSV файл и преобразует его в список сотрудников.
@@ -35,104 +73,315 @@ public class CsvParser {
      *
      * @param csvFilePath путь к CSV файлу
      * @param separator разделитель полей
-     * @return список сотрудников
+     * @return список сотрудников; при заданном кэше - неизменяемый
      * @throws IOException если произошла ошибка чтения файла
      * @throws CsvValidationException если CSV файл невалиден
      */
     public List<Person> parseCsvFile(String csvFilePath, char separator)
             throws IOException, CsvValidationException {
 
+        if (resultCache != null) {
+            return resultCache.get(this, csvFilePath, separator);
+        }
+
         List<Person> persons = new ArrayList<>();
+        forEachPerson(csvFilePath, separator, persons::add);
+        return persons;
+    }
+
+    /**
+     * Читает CSV файл сразу в хранилище вне кучи JVM.
+     * Поля строки записываются в хранилище напрямую, без промежуточных объектов Person.
+     *
+     * @param csvFilePath путь к CSV файлу
+     * @param separator разделитель полей
+     * @return заполненное хранилище
+     * @throws IOException если произошла ошибка чтения файла
+     * @throws CsvValidationException если CSV файл невалиден
+     */
+    public OffHeapPersonStore parseCsvFileOffHeap(String csvFilePath, char separator)
+            throws IOException, CsvValidationException {
 
-        // Сначала пробуем открыть как обычный файл
-        InputStream in = null;
+        OffHeapPersonStore store = new OffHeapPersonStore();
+        try (CSVReader reader = openReader(csvFilePath, separator)) {
+            ColumnMapping mapping = ColumnMapping.compile(reader.readNext());
+            forEachRecord(reader, mapping, 1, (id, name, gender, birthDate, division, salary) -> {
+                store.add(id, name, gender, (int) birthDate.toEpochDay(), division, salary);
+                return store;
+            }, added -> { });
+        }
+        return store;
+    }
 
-        try {
-            File file = new File(csvFilePath);
-
-            if (file.exists() && file.isFile()) {
-                // Если файл существует на файловой системе
-                in = new FileInputStream(file);
-            } else {
-                // Если файла нет на файловой системе, ищем в ресурсах
-                in = getClass().getClassLoader().getResourceAsStream(csvFilePath);
-                if (in == null) {
-                    // Пробуем удалить префикс "src/test/resources/" если он есть
-                    String resourcePath = csvFilePath.replace("src/test/resources/", "")
-                            .replace("src/main/resources/", "");
-                    in = getClass().getClassLoader().getResourceAsStream(resourcePath);
-
-                    if (in == null) {
-                        throw new FileNotFoundException("Файл не найден: " + csvFilePath);
-                    }
-                }
+    /**
+     * Читает CSV файл построчно и передает каждого распарсенного сотрудника в обработчик,
+     * не накапливая список в памяти.
+     *
+     * @param csvFilePath путь к CSV файлу
+     * @param separator разделитель полей
+     * @param action обработчик сотрудников
+     * @return количество успешно обработанных записей
+     * @throws IOException если произошла ошибка чтения файла
+     * @throws CsvValidationException если CSV файл невалиден
+     */
+    public long forEachPerson(String csvFilePath, char separator, Consumer<? super Person> action)
+            throws IOException, CsvValidationException {
+
+        return forEachPerson(openInputStream(csvFilePath), separator, action);
+    }
+
+    /**
+     * Читает CSV данные из потока и передает каждого сотрудника в обработчик.
+     * Поток закрывается после чтения.
+     */
+    long forEachPerson(InputStream in, char separator, Consumer<? super Person> action)
+            throws IOException, CsvValidationException {
+
+        try (CSVReader reader = openReader(in, separator)) {
+
+            // Заголовок компилируется в соответствие колонок один раз на файл
+            ColumnMapping mapping = ColumnMapping.compile(reader.readNext());
+            return forEachRecord(reader, mapping, 1, Person::new, action);
+        }
+    }
+
+    /**
+     * Парсит записи, начинающиеся в диапазоне байтов [start, end) файла на диске.
+     * Если start не совпадает с началом строки, неполная строка пропускается: ее обработает
+     * диапазон, в котором она начинается. Заголовок пропускается только в диапазоне с start = 0.
+     * Поля с переводом строки внутри кавычек и сжатые файлы в этом режиме не поддерживаются.
+     *
+     * @param csvFilePath путь к CSV файлу на диске
+     * @param separator разделитель полей
+     * @param start начало диапазона (включительно)
+     * @param end конец диапазона (не включительно)
+     * @param action обработчик сотрудников
+     * @return количество успешно обработанных записей
+     * @throws IOException если произошла ошибка чтения файла или файл сжат
+     */
+    public long forEachPersonInRange(String csvFilePath, char separator, long start, long end,
+                                     Consumer<? super Person> action) throws IOException {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Неверный диапазон: [" + start + ", " + end + ")");
+        }
+
+        requireUncompressed(new File(csvFilePath), "чтения диапазона");
+
+        try (FileChannel channel = FileChannel.open(new File(csvFilePath).toPath(), StandardOpenOption.READ)) {
+
+            // Заголовок всегда читается из начала файла, чтобы все диапазоны использовали одно соответствие
+            String header = new String(new LineRangeInputStream(channel, 0, 0).readAllBytes(), "UTF-8");
+            ColumnMapping mapping = ColumnMapping.compileLine(header,
+                    new com.opencsv.CSVParserBuilder().withSeparator(separator).build());
+
+            // Синхронизация на начало строки: заголовок при start = 0, иначе хвост предыдущей строки
+            LineRangeInputStream skipped = new LineRangeInputStream(channel, Math.max(0, start - 1), start - 1);
+            skipped.skip(Long.MAX_VALUE);
+            long lineStart = skipped.position();
+            if (lineStart >= end) {
+                return 0;
+            }
+
+            // Записи диапазона заканчиваются строкой, которая начинается до end
+            try (CSVReader reader = openReader(new LineRangeInputStream(channel, lineStart, end - 1), separator)) {
+                return forEachRecord(reader, mapping, 0, Person::new, action);
+            } catch (CsvValidationException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Парсит записи читателя после заголовка и передает результаты в обработчик.
+     * Невалидные строки выводятся в лог и пропускаются.
+     */
+    private <T> long forEachRecord(CSVReader reader, ColumnMapping mapping, int lineNumber,
+                                   RecordFactory<T> factory, Consumer<? super T> action)
+            throws IOException, CsvValidationException {
+        long count = 0;
+        String[] nextLine;
+
+        while ((nextLine = reader.readNext()) != null) {
+            lineNumber++;
+            try {
+                T record = parseRecord(nextLine, mapping, lineNumber, factory);
+                action.accept(record);
+                count++;
+            } catch (IllegalArgumentException e) {
+                System.err.printf("Ошибка в строке %d: %s%n", lineNumber, e.getMessage());
+                // Пропускаем невалидные строки, продолжаем обработку
             }
+        }
 
+        return count;
+    }
+
+    /**
+     * Открывает CSV файл для чтения с указанным разделителем.
+     *
+     * @param csvFilePath путь к файлу на диске или в ресурсах
+     * @param separator разделитель полей
+     * @return читатель CSV, который нужно закрыть после использования
+     * @throws FileNotFoundException если файл не найден ни на диске, ни в ресурсах
+     */
+    CSVReader openReader(String csvFilePath, char separator) throws IOException {
+        return openReader(openInputStream(csvFilePath), separator);
+    }
+
+    /**
+     * Создает читатель CSV поверх потока. При ошибке поток закрывается.
+     */
+    CSVReader openReader(InputStream in, char separator) throws IOException {
+        try {
             // Используем CSVReaderBuilder для создания читателя
-            try (CSVReader reader = new CSVReaderBuilder(new InputStreamReader(in, "UTF-8"))
+            return new CSVReaderBuilder(new InputStreamReader(in, "UTF-8"))
                     .withCSVParser(new com.opencsv.CSVParserBuilder().withSeparator(separator).build())
-                    .build()) {
-
-                // Пропускаем заголовок
-                reader.readNext();
-
-                String[] nextLine;
-                int lineNumber = 1; // Для отладки
-
-                while ((nextLine = reader.readNext()) != null) {
-                    lineNumber++;
-                    try {
-                        Person person = parsePerson(nextLine, lineNumber);
-                        persons.add(person);
-                    } catch (IllegalArgumentException e) {
-                        System.err.printf("Ошибка в строке %d: %s%n", lineNumber, e.getMessage());
-                        // Пропускаем невалидные строки, продолжаем обработку
-                    }
-                }
+                    .build();
+        } catch (RuntimeException | IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Открывает поток файла: сначала ищет на файловой системе, затем в ресурсах.
+     * Сжатые файлы (gzip, zip) распаковываются на лету; тип определяется по сигнатуре.
+     *
+     * @param csvFilePath путь к файлу
+     * @return входной поток с несжатыми данными
+     * @throws FileNotFoundException если файл не найден
+     */
+    InputStream openInputStream(String csvFilePath) throws IOException {
+        File file = new File(csvFilePath);
+
+        if (file.exists() && file.isFile()) {
+            // Если файл существует на файловой системе
+            int magic = readMagic(file);
+            if (magic == GZIP_MAGIC) {
+                // Многочленный gzip распаковывается параллельно с парсингом
+                return ParallelGzipInputStream.open(file);
             }
-        } finally {
-            if (in != null) {
-                try {
-                    in.close();
-                } catch (IOException e) {
-                    // Игнорируем ошибку закрытия
+            return decompressIfNeeded(new FileInputStream(file));
+        }
+
+        // Если файла нет на файловой системе, ищем в ресурсах
+        URL resource = findResource(csvFilePath);
+        if (resource == null) {
+            throw new FileNotFoundException("Файл не найден: " + csvFilePath);
+        }
+        return decompressIfNeeded(resource.openStream());
+    }
+
+    /**
+     * Ищет файл в ресурсах classpath.
+     *
+     * @param csvFilePath путь к ресурсу, возможно с префиксом каталога ресурсов
+     * @return адрес ресурса или null, если ресурс не найден
+     */
+    URL findResource(String csvFilePath) {
+        ClassLoader loader = getClass().getClassLoader();
+        URL resource = loader.getResource(csvFilePath);
+        if (resource == null) {
+            // Пробуем удалить префикс "src/test/resources/" если он есть
+            String resourcePath = csvFilePath.replace("src/test/resources/", "")
+                    .replace("src/main/resources/", "");
+            resource = loader.getResource(resourcePath);
+        }
+        return resource;
+    }
+
+    /**
+     * Оборачивает поток в распаковщик, если данные начинаются с сигнатуры gzip или zip.
+     * Из zip архива читается первый элемент.
+     */
+    private static InputStream decompressIfNeeded(InputStream raw) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(raw, COMPRESSED_BUFFER_SIZE);
+        try {
+            in.mark(4);
+            int magic = (in.read() << 8) | in.read();
+            in.reset();
+
+            if (magic == GZIP_MAGIC) {
+                return new GZIPInputStream(in, COMPRESSED_BUFFER_SIZE);
+            }
+            if (magic == ZIP_MAGIC) {
+                ZipInputStream zip = new ZipInputStream(in);
+                if (zip.getNextEntry() == null) {
+                    throw new IOException("Пустой zip архив");
                 }
+                return zip;
             }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
         }
+    }
 
-        return persons;
+    /**
+     * Проверяет, что файл не сжат: режимы с произвольным доступом по смещениям
+     * работают только с несжатыми данными.
+     *
+     * @param file файл на диске
+     * @param mode название режима для сообщения об ошибке
+     * @throws IOException если файл в формате gzip или zip
+     */
+    static void requireUncompressed(File file, String mode) throws IOException {
+        int magic = readMagic(file);
+        if (magic == GZIP_MAGIC || magic == ZIP_MAGIC) {
+            throw new IOException("Сжатые файлы (gzip, zip) не поддерживаются в режиме "
+                    + mode + ": " + file.getPath());
+        }
+    }
+
+    /**
+     * Читает первые два байта файла.
+     */
+    private static int readMagic(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return (in.read() << 8) | in.read();
+        }
     }
 
     /**
      * Парсит одну строку CSV файла в объект Person.
      *
      * @param fields массив полей строки
+     * @param mapping соответствие колонок полям, построенное по заголовку
      * @param lineNumber номер строки (для сообщений об ошибках)
      * @return объект Person
      * @throws IllegalArgumentException если данные невалидны
      */
-    private Person parsePerson(String[] fields, int lineNumber) {
-        if (fields.length < 6) {
+    Person parsePerson(String[] fields, ColumnMapping mapping, int lineNumber) {
+        return parseRecord(fields, mapping, lineNumber, Person::new);
+    }
+
+    /**
+     * Разбирает и проверяет поля строки и передает их фабрике записи.
+     */
+    private <T> T parseRecord(String[] fields, ColumnMapping mapping, int lineNumber, RecordFactory<T> factory) {
+        if (fields.length < mapping.minFields) {
             throw new IllegalArgumentException(
-                    String.format("Строка %d: ожидается 6 полей, получено %d", lineNumber, fields.length)
+                    String.format("Строка %d: ожидается %d полей, получено %d",
+                            lineNumber, mapping.minFields, fields.length)
             );
         }
 
         try {
             // Парсим ID
-            Long id = parseId(fields[0], lineNumber);
+            long id = parseId(fields[mapping.id], lineNumber);
 
             // Имя
-            String name = fields[1].trim();
+            String name = fields[mapping.name].trim();
             if (name.isEmpty()) {
                 throw new IllegalArgumentException("Имя не может быть пустым");
             }
 
             // Пол
-            Person.Gender gender = Person.Gender.fromString(fields[2].trim());
+            Person.Gender gender = Person.Gender.fromString(fields[mapping.gender].trim());
 
             // Дата рождения
-            LocalDate birthDate = DateUtils.parseDate(fields[3].trim());
+            LocalDate birthDate = DateUtils.parseDate(fields[mapping.birthDate].trim());
 
             // Проверяем валидность даты
             if (!DateUtils.isValidDate(birthDate)) {
@@ -140,13 +389,13 @@ public class CsvParser {
             }
 
             // Подразделение (используем кэш)
-            String divisionName = fields[4].trim();
+            String divisionName = fields[mapping.division].trim();
             Division division = getOrCreateDivision(divisionName);
 
             // Зарплата
-            Double salary = parseSalary(fields[5].trim(), lineNumber);
+            double salary = parseSalary(fields[mapping.salary].trim(), lineNumber);
 
-            return new Person(id, name, gender, birthDate, division, salary);
+            return factory.create(id, name, gender, birthDate, division, salary);
 
         } catch (Exception e) {
             throw new IllegalArgumentException(
@@ -158,9 +407,9 @@ public class CsvParser {
     /**
      * Парсит ID из строки.
      */
-    private Long parseId(String idStr, int lineNumber) {
+    private long parseId(String idStr, int lineNumber) {
         try {
-            Long id = Long.parseLong(idStr.trim());
+            long id = Long.parseLong(idStr.trim());
             if (id <= 0) {
                 throw new IllegalArgumentException("ID должен быть положительным числом");
             }
@@ -173,9 +422,9 @@ public class CsvParser {
     /**
      * Парсит зарплату из строки.
      */
-    private Double parseSalary(String salaryStr, int lineNumber) {
+    private double parseSalary(String salaryStr, int lineNumber) {
         try {
-            Double salary = Double.parseDouble(salaryStr.trim());
+            double salary = Double.parseDouble(salaryStr.trim());
             if (salary < 0) {
                 throw new IllegalArgumentException("Зарплата не может быть отрицательной");
             }
@@ -204,4 +453,99 @@ public class CsvParser {
     public static void clearDivisionCache() {
         DIVISION_CACHE.clear();
     }
+
+    /**
+     * Создает запись из проверенных полей строки: объект Person или запись в хранилище.
+     */
+    private interface RecordFactory<T> {
+        T create(long id, String name, Person.Gender gender, LocalDate birthDate, Division division, double salary);
+    }
+
+    /**
+     * Поток байтов файла с позиции start, который заканчивается после первого перевода строки
+     * в позиции не меньше limit (или в конце файла). Закрытие не закрывает канал.
+     */
+    private static final class LineRangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long limit;
+        private final ByteBuffer buffer = ByteBuffer.allocate(RANGE_BUFFER_SIZE);
+        private long filePosition;
+        private long position;
+        private boolean finished;
+
+        private LineRangeInputStream(FileChannel channel, long start, long limit) {
+            this.channel = channel;
+            this.limit = limit;
+            this.filePosition = start;
+            this.position = start;
+            buffer.limit(0);
+        }
+
+        /**
+         * Позиция в файле следующего непрочитанного байта.
+         */
+        private long position() {
+            return position;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (finished) {
+                return -1;
+            }
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer, filePosition);
+                buffer.flip();
+                if (read <= 0) {
+                    finished = true;
+                    return -1;
+                }
+                filePosition += read;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            byte[] data = buffer.array();
+            int from = buffer.position();
+            // Перевод строки ищется только начиная с позиции limit
+            for (int i = (int) Math.max(0, Math.min(count, limit - position)); i < count; i++) {
+                if (data[from + i] == '\n') {
+                    count = i + 1;
+                    finished = true;
+                    break;
+                }
+            }
+            buffer.get(bytes, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] discard = new byte[RANGE_BUFFER_SIZE];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(discard, 0, (int) Math.min(discard.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            // Канал закрывает владелец
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package lab4.csv;
+
+import lab4.model.Person;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реактивный источник сотрудников из CSV файла.
+ * <p>
+ * Каждая подписка открывает файл заново и читает записи только по запросу подписчика
+ * ({@link Flow.Subscription#request(long)}), поэтому медленный потребитель тормозит чтение,
+ * а не накапливает весь файл в памяти. Файл открывается при первом запросе и закрывается
+ * при завершении, ошибке или отмене подписки. Невалидные строки пропускаются, как в {@link CsvParser}.
+ * <p>
+ * Сигналы подписчику передаются последовательно в потоках заданного {@link Executor}.
+ */
+public class CsvPublisher implements Flow.Publisher<Person> {
+    private final CsvParser parser;
+    private final String csvFilePath;
+    private final char separator;
+    private final Executor executor;
+
+    /**
+     * Конструктор с разделителем по умолчанию и общим пулом ForkJoin.
+     *
+     * @param csvFilePath путь к CSV файлу
+     */
+    public CsvPublisher(String csvFilePath) {
+        this(csvFilePath, CsvParser.DEFAULT_SEPARATOR, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Конструктор для создания источника.
+     *
+     * @param csvFilePath путь к CSV файлу
+     * @param separator разделитель полей
+     * @param executor исполнитель, в котором читается файл и вызываются методы подписчика
+     * @throws IllegalArgumentException если путь или исполнитель null
+     */
+    public CsvPublisher(String csvFilePath, char separator, Executor executor) {
+        if (csvFilePath == null) {
+            throw new IllegalArgumentException("Путь к файлу не может быть null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Исполнитель не может быть null");
+        }
+        this.parser = new CsvParser();
+        this.csvFilePath = csvFilePath;
+        this.separator = separator;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Person> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Подписчик не может быть null");
+        }
+        CsvSubscription subscription = new CsvSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Подписка: хранит текущий спрос и читает файл в цикле, который одновременно
+     * выполняется не более чем в одном потоке.
+     */
+    private final class CsvSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Person> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // Доступны только из цикла чтения
+        private CSVReader reader;
+        private ColumnMapping mapping;
+        private int lineNumber;
+        private boolean done;
+
+        private CsvSubscription(Flow.Subscriber<? super Person> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Запрошено неположительное количество: " + n);
+            } else {
+                demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                drainOnce();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainOnce() {
+            if (done) {
+                return;
+            }
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (invalidRequest != null) {
+                finish();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+
+            try {
+                if (reader == null) {
+                    reader = parser.openReader(csvFilePath, separator);
+                    mapping = ColumnMapping.compile(reader.readNext());
+                    lineNumber = 1;
+                }
+
+                while (demand.get() > 0 && !cancelled) {
+                    String[] nextLine = reader.readNext();
+                    if (nextLine == null) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    lineNumber++;
+
+                    Person person;
+                    try {
+                        person = parser.parsePerson(nextLine, mapping, lineNumber);
+                    } catch (IllegalArgumentException e) {
+                        System.err.printf("Ошибка в строке %d: %s%n", lineNumber, e.getMessage());
+                        continue;
+                    }
+                    demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(person);
+                    } catch (RuntimeException e) {
+                        // Подписчик нарушил контракт: подписка считается отмененной, файл закрывается
+                        cancelled = true;
+                        finish();
+                        System.err.printf("Подписчик выбросил исключение в строке %d: %s%n", lineNumber, e);
+                        return;
+                    }
+                }
+
+                if (cancelled) {
+                    finish();
+                }
+            } catch (IOException | CsvValidationException e) {
+                finish();
+                subscriber.onError(e);
+            }
+        }
+
+        /**
+         * Закрывает файл и переводит подписку в конечное состояние.
+         */
+        private void finish() {
+            done = true;
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // Игнорируем ошибку закрытия
+                }
+                reader = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package lab4.csv;
+
+import lab4.model.DivisionInfo;
+import lab4.model.EnrichedPerson;
+import lab4.model.Person;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hash join сотрудников со справочником подразделений.
+ * <p>
+ * Хеш-таблица строится по меньшему файлу справочника (ключ - название подразделения),
+ * а сотрудники читаются потоком и обогащаются за один проход без накопления списка.
+ * Сотрудники без записи в справочнике передаются с пустыми справочными данными (left join).
+ * <p>
+ * Формат справочника: {@code division;costCenter;manager;region} с заголовком в первой строке.
+ */
+public class DivisionJoiner {
+    private static final int REFERENCE_FIELDS = 4;
+
+    private final CsvParser parser;
+
+    /**
+     * Конструктор с парсером сотрудников по умолчанию.
+     */
+    public DivisionJoiner() {
+        this(new CsvParser());
+    }
+
+    /**
+     * Конструктор с заданным парсером сотрудников.
+     *
+     * @param parser парсер сотрудников
+     */
+    public DivisionJoiner(CsvParser parser) {
+        if (parser == null) {
+            throw new IllegalArgumentException("Парсер не может быть null");
+        }
+        this.parser = parser;
+    }
+
+    /**
+     * Соединяет сотрудников со справочником подразделений.
+     *
+     * @param employeesPath путь к CSV файлу сотрудников
+     * @param divisionsPath путь к CSV файлу справочника подразделений
+     * @param sink обработчик обогащенных записей
+     * @return количество переданных в обработчик записей
+     * @throws IOException если произошла ошибка чтения файла
+     * @throws CsvValidationException если CSV файл невалиден
+     */
+    public long join(String employeesPath, String divisionsPath, Consumer<? super EnrichedPerson> sink)
+            throws IOException, CsvValidationException {
+        return join(employeesPath, divisionsPath, CsvParser.DEFAULT_SEPARATOR, sink);
+    }
+
+    /**
+     * Соединяет сотрудников со справочником подразделений.
+     *
+     * @param employeesPath путь к CSV файлу сотрудников
+     * @param divisionsPath путь к CSV файлу справочника подразделений
+     * @param separator разделитель полей в обоих файлах
+     * @param sink обработчик обогащенных записей
+     * @return количество переданных в обработчик записей
+     * @throws IOException если произошла ошибка чтения файла
+     * @throws CsvValidationException если CSV файл невалиден
+     */
+    public long join(String employeesPath, String divisionsPath, char separator,
+                     Consumer<? super EnrichedPerson> sink)
+            throws IOException, CsvValidationException {
+        if (sink == null) {
+            throw new IllegalArgumentException("Обработчик не может быть null");
+        }
+
+        // Фаза построения: хеш-таблица по справочнику
+        Map<String, DivisionInfo> reference = loadReference(divisionsPath, separator);
+
+        // Фаза зондирования: сотрудники идут потоком через хеш-таблицу
+        return parser.forEachPerson(employeesPath, separator, person ->
+                sink.accept(probe(reference, person)));
+    }
+
+    /**
+     * Загружает справочник подразделений в хеш-таблицу по названию подразделения.
+     * При повторении названия используется первая запись.
+     *
+     * @param divisionsPath путь к CSV файлу справочника
+     * @param separator разделитель полей
+     * @return неизменяемая таблица "название -> справочные данные"
+     * @throws IOException если произошла ошибка чтения файла
+     * @throws CsvValidationException если CSV файл невалиден
+     */
+    public Map<String, DivisionInfo> loadReference(String divisionsPath, char separator)
+            throws IOException, CsvValidationException {
+
+        Map<String, DivisionInfo> reference = new HashMap<>();
+
+        try (CSVReader reader = parser.openReader(divisionsPath, separator)) {
+
+            // Пропускаем заголовок
+            reader.readNext();
+
+            String[] nextLine;
+            int lineNumber = 1;
+
+            while ((nextLine = reader.readNext()) != null) {
+                lineNumber++;
+                try {
+                    DivisionInfo info = parseDivisionInfo(nextLine, lineNumber);
+                    if (reference.putIfAbsent(info.getName(), info) != null) {
+                        System.err.printf("Строка %d: повторное подразделение '%s' пропущено%n",
+                                lineNumber, info.getName());
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.err.printf("Ошибка в строке %d: %s%n", lineNumber, e.getMessage());
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(reference);
+    }
+
+    /**
+     * Ищет справочные данные для подразделения сотрудника.
+     */
+    private static EnrichedPerson probe(Map<String, DivisionInfo> reference, Person person) {
+        return new EnrichedPerson(person, reference.get(person.getDivision().getName()));
+    }
+
+    /**
+     * Парсит одну строку справочника подразделений.
+     */
+    private static DivisionInfo parseDivisionInfo(String[] fields, int lineNumber) {
+        if (fields.length < REFERENCE_FIELDS) {
+            throw new IllegalArgumentException(
+                    String.format("Строка %d: ожидается %d поля, получено %d",
+                            lineNumber, REFERENCE_FIELDS, fields.length)
+            );
+        }
+        return new DivisionInfo(fields[0], fields[1], fields[2], fields[3]);
+    }
+}
@@ -0,0 +1,311 @@
+package lab4.csv;
+
+import lab4.model.Person;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * Кэш результатов парсинга внутри процесса.
+ * <p>
+ * Ключ - путь к файлу и разделитель; вместе с результатом хранится отпечаток содержимого: размер,
+ * время изменения и CRC32C первого и последнего блоков файла по {@value #FINGERPRINT_BLOCK_SIZE} байт.
+ * Если отпечаток изменился, старая запись удаляется и заменяется новой, поэтому устаревшие
+ * версии файла не занимают место в кэше. Проверка отпечатка
+ * стоит два чтения независимо от размера файла, поэтому повторная загрузка неизмененного файла сразу
+ * возвращает общий неизменяемый список. Изменение в середине большого файла без изменения размера
+ * и времени изменения не обнаруживается.
+ * <p>
+ * Ресурсы classpath считаются неизменными во время работы процесса: ключ - адрес ресурса,
+ * а его размер и CRC32C всего содержимого вычисляются один раз при первом обращении.
+ * <p>
+ * Вытеснение LRU учитывает приблизительный объем памяти результатов: при превышении лимита
+ * удаляются давно не использованные записи. Результат больше лимита не кэшируется.
+ */
+public class ParseResultCache {
+    private static final long PERSON_BASE_WEIGHT = 160;
+    private static final int FINGERPRINT_BLOCK_SIZE = 64 * 1024;
+
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Fingerprint> resourceFingerprints = new HashMap<>();
+    private long totalWeight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Конструктор для создания кэша.
+     *
+     * @param maxWeightBytes приблизительный лимит памяти результатов в байтах
+     * @throws IllegalArgumentException если лимит неположительный
+     */
+    public ParseResultCache(long maxWeightBytes) {
+        if (maxWeightBytes <= 0) {
+            throw new IllegalArgumentException("Лимит памяти кэша должен быть положительным");
+        }
+        this.maxWeight = maxWeightBytes;
+    }
+
+    /**
+     * Возвращает результат парсинга из кэша или парсит файл и сохраняет результат.
+     *
+     * @param parser парсер, которым выполняется разбор при промахе
+     * @param csvFilePath путь к файлу на диске или в ресурсах
+     * @param separator разделитель полей
+     * @return неизменяемый список сотрудников
+     * @throws IOException если произошла ошибка чтения файла
+     * @throws CsvValidationException если CSV файл невалиден
+     */
+    public List<Person> get(CsvParser parser, String csvFilePath, char separator)
+            throws IOException, CsvValidationException {
+
+        File file = new File(csvFilePath);
+        if (!file.exists() || !file.isFile()) {
+            return getResource(parser, csvFilePath, separator);
+        }
+
+        Key key = new Key(file.getAbsolutePath(), separator);
+        Fingerprint fingerprint = new Fingerprint(file.length(), file.lastModified(), hashBlocks(file));
+        List<Person> cached = lookup(key, fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Person> persons = new ArrayList<>();
+        parser.forEachPerson(parser.openInputStream(csvFilePath), separator, persons::add);
+        List<Person> view = Collections.unmodifiableList(persons);
+
+        // Файл мог измениться во время парсинга - такой результат не кэшируем
+        if (file.length() == fingerprint.size && file.lastModified() == fingerprint.modified) {
+            store(key, fingerprint, view, weigh(persons));
+        }
+        return view;
+    }
+
+    /**
+     * Загружает ресурс classpath: содержимое читается только при первом обращении к адресу
+     * и при промахе кэша.
+     */
+    private List<Person> getResource(CsvParser parser, String csvFilePath, char separator)
+            throws IOException, CsvValidationException {
+        URL resource = parser.findResource(csvFilePath);
+        if (resource == null) {
+            throw new FileNotFoundException("Файл не найден: " + csvFilePath);
+        }
+        String address = resource.toString();
+
+        Fingerprint fingerprint;
+        synchronized (this) {
+            fingerprint = resourceFingerprints.get(address);
+        }
+        byte[] content = null;
+        if (fingerprint == null) {
+            try (InputStream in = parser.openInputStream(csvFilePath)) {
+                content = in.readAllBytes();
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(content);
+            fingerprint = new Fingerprint(content.length, 0, crc.getValue());
+            synchronized (this) {
+                resourceFingerprints.put(address, fingerprint);
+            }
+        }
+
+        Key key = new Key(address, separator);
+        List<Person> cached = lookup(key, fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Person> persons = new ArrayList<>();
+        InputStream in = content != null
+                ? new ByteArrayInputStream(content)
+                : parser.openInputStream(csvFilePath);
+        parser.forEachPerson(in, separator, persons::add);
+        List<Person> view = Collections.unmodifiableList(persons);
+        store(key, fingerprint, view, weigh(persons));
+        return view;
+    }
+
+    // Метрики
+    public synchronized long getHitCount() { return hitCount; }
+    public synchronized long getMissCount() { return missCount; }
+    public synchronized long getEvictionCount() { return evictionCount; }
+    public synchronized long getTotalWeight() { return totalWeight; }
+    public synchronized int size() { return entries.size(); }
+
+    /**
+     * Удаляет все записи кэша. Метрики сохраняются.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        resourceFingerprints.clear();
+        totalWeight = 0;
+    }
+
+    /**
+     * Ищет результат с совпадающим отпечатком; запись устаревшей версии файла удаляется.
+     */
+    private synchronized List<Person> lookup(Key key, Fingerprint fingerprint) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.fingerprint.equals(fingerprint)) {
+            entries.remove(key);
+            totalWeight -= entry.weight;
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.persons;
+    }
+
+    private synchronized void store(Key key, Fingerprint fingerprint, List<Person> persons, long weight) {
+        if (weight > maxWeight) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(fingerprint, persons, weight));
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        totalWeight += weight;
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (totalWeight > maxWeight && eldest.hasNext()) {
+            Map.Entry<Key, Entry> candidate = eldest.next();
+            if (candidate.getKey().equals(key)) {
+                continue;
+            }
+            totalWeight -= candidate.getValue().weight;
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Приблизительный объем памяти списка: объекты Person, LocalDate, Long, Double и строка имени.
+     */
+    private static long weigh(List<Person> persons) {
+        long weight = 0;
+        for (Person person : persons) {
+            weight += PERSON_BASE_WEIGHT + 2L * person.getName().length();
+        }
+        return weight;
+    }
+
+    /**
+     * CRC32C первого и последнего блоков файла (всего файла, если он меньше двух блоков).
+     */
+    private static long hashBlocks(File file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(FINGERPRINT_BLOCK_SIZE);
+            updateBlock(crc, channel, buffer, 0);
+            if (size > FINGERPRINT_BLOCK_SIZE) {
+                updateBlock(crc, channel, buffer, Math.max(FINGERPRINT_BLOCK_SIZE, size - FINGERPRINT_BLOCK_SIZE));
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static void updateBlock(CRC32C crc, FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        crc.update(buffer);
+    }
+
+    /**
+     * Ключ кэша: путь и разделитель.
+     */
+    private static final class Key {
+        private final String path;
+        private final char separator;
+
+        private Key(String path, char separator) {
+            this.path = path;
+            this.separator = separator;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return separator == key.separator && path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, separator);
+        }
+    }
+
+    /**
+     * Отпечаток версии содержимого: размер, время изменения и CRC32C.
+     */
+    private static final class Fingerprint {
+        private final long size;
+        private final long modified;
+        private final long hash;
+
+        private Fingerprint(long size, long modified, long hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Fingerprint that = (Fingerprint) o;
+            return size == that.size && modified == that.modified && hash == that.hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, modified, hash);
+        }
+    }
+
+    /**
+     * Закэшированный результат, отпечаток версии файла и вес результата.
+     */
+    private static final class Entry {
+        private final Fingerprint fingerprint;
+        private final List<Person> persons;
+        private final long weight;
+
+        private Entry(Fingerprint fingerprint, List<Person> persons, long weight) {
+            this.fingerprint = fingerprint;
+            this.persons = persons;
+            this.weight = weight;
+        }
+    }
+}
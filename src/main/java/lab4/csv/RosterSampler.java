@@ -0,0 +1,247 @@
+package lab4.csv;
+
+import lab4.model.Person;
+import lab4.stats.RosterEstimate;
+import lab4.stats.RosterEstimate.Interval;
+import com.opencsv.CSVParser;
+import com.opencsv.CSVParserBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Приблизительная статистика по случайной выборке строк большого CSV файла.
+ * <p>
+ * Для каждой записи выборки выбирается случайное смещение в файле, чтение синхронизируется
+ * на начало следующей строки, и разбирается одна запись. Файл целиком не читается, поэтому
+ * время не зависит от его размера. Количество записей оценивается как объем данных,
+ * деленный на среднюю длину строки, с поправкой на долю невалидных строк.
+ * Доверительные интервалы - нормальное приближение на уровне 95%.
+ * <p>
+ * Ограничения: строка выбирается с вероятностью, пропорциональной длине предыдущей строки
+ * (для первой записи - длине заголовка; смещение в последней строке считается промахом),
+ * а поля с переводом строки внутри кавычек и сжатые файлы не поддерживаются.
+ */
+public class RosterSampler {
+    private static final double Z_95 = 1.96;
+    private static final int READ_CHUNK = 4096;
+    private static final int MAX_ATTEMPTS_FACTOR = 4;
+
+    private final CsvParser parser = new CsvParser();
+    private final Random random;
+
+    /**
+     * Конструктор со случайным начальным значением генератора.
+     */
+    public RosterSampler() {
+        this(new Random());
+    }
+
+    /**
+     * Конструктор с заданным генератором (для воспроизводимых выборок).
+     *
+     * @param random генератор случайных чисел
+     */
+    public RosterSampler(Random random) {
+        if (random == null) {
+            throw new IllegalArgumentException("Генератор не может быть null");
+        }
+        this.random = random;
+    }
+
+    /**
+     * Оценивает статистику файла по выборке с разделителем по умолчанию.
+     *
+     * @param csvFilePath путь к CSV файлу на диске
+     * @param sampleSize желаемое количество записей в выборке
+     * @return оценка статистики
+     * @throws IOException если произошла ошибка чтения файла
+     */
+    public RosterEstimate sample(String csvFilePath, int sampleSize) throws IOException {
+        return sample(csvFilePath, CsvParser.DEFAULT_SEPARATOR, sampleSize);
+    }
+
+    /**
+     * Оценивает статистику файла по выборке.
+     *
+     * @param csvFilePath путь к CSV файлу на диске
+     * @param separator разделитель полей
+     * @param sampleSize желаемое количество записей в выборке
+     * @return оценка статистики
+     * @throws FileNotFoundException если файл не найден на диске
+     * @throws IOException если произошла ошибка чтения файла или файл сжат
+     */
+    public RosterEstimate sample(String csvFilePath, char separator, int sampleSize) throws IOException {
+        if (sampleSize <= 0) {
+            throw new IllegalArgumentException("Размер выборки должен быть положительным");
+        }
+        File file = new File(csvFilePath);
+        if (!file.isFile()) {
+            throw new FileNotFoundException("Файл не найден: " + csvFilePath);
+        }
+        CsvParser.requireUncompressed(file, "выборки");
+
+        CSVParser lineParser = new CSVParserBuilder().withSeparator(separator).build();
+        Accumulator acc = new Accumulator();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            // Заголовок задает соответствие колонок
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            long dataStart = readLine(channel, 0, size, header);
+            long dataBytes = size - dataStart;
+            ColumnMapping mapping = ColumnMapping.compileLine(
+                    new String(header.toByteArray(), StandardCharsets.UTF_8), lineParser);
+
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int attempts = 0;
+            while (acc.valid < sampleSize && attempts < sampleSize * MAX_ATTEMPTS_FACTOR && dataBytes > 0) {
+                attempts++;
+                // Смещение по всему файлу: попадание в заголовок выбирает первую запись с весом заголовка
+                long offset = (long) (random.nextDouble() * size);
+
+                // Синхронизация: выбирается строка, которая начинается после строки со смещением
+                long lineStart = readLine(channel, offset, size, new ByteArrayOutputStream());
+                if (lineStart >= size) {
+                    // Смещение попало в последнюю строку: после нее строк нет, попытка - промах
+                    continue;
+                }
+
+                line.reset();
+                long lineEnd = readLine(channel, lineStart, size, line);
+                acc.addLine(lineEnd - lineStart);
+
+                String text = new String(line.toByteArray(), StandardCharsets.UTF_8).trim();
+                try {
+                    acc.addPerson(parser.parsePerson(lineParser.parseLine(text), mapping, 0));
+                } catch (IOException | IllegalArgumentException e) {
+                    // Невалидные строки учитываются только в оценке доли валидных записей
+                }
+            }
+
+            return acc.toEstimate(dataBytes);
+        }
+    }
+
+    /**
+     * Читает строку начиная с позиции и возвращает позицию после ее перевода строки.
+     */
+    private static long readLine(FileChannel channel, long position, long size, ByteArrayOutputStream out)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+        long current = position;
+        while (current < size) {
+            buffer.clear();
+            int read = channel.read(buffer, current);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    out.write(bytes, 0, i);
+                    return current + i + 1;
+                }
+            }
+            out.write(bytes, 0, read);
+            current += read;
+        }
+        return size;
+    }
+
+    /**
+     * Суммы по выборке для вычисления оценок.
+     */
+    private static final class Accumulator {
+        private int lines;
+        private double lineBytesSum;
+        private double lineBytesSquares;
+        private int valid;
+        private int male;
+        private double salarySum;
+        private double salarySquares;
+        private final Map<String, Integer> divisions = new LinkedHashMap<>();
+
+        private void addLine(long bytes) {
+            lines++;
+            lineBytesSum += bytes;
+            lineBytesSquares += (double) bytes * bytes;
+        }
+
+        private void addPerson(Person person) {
+            valid++;
+            if (person.getGender() == Person.Gender.MALE) {
+                male++;
+            }
+            double salary = person.getSalary();
+            salarySum += salary;
+            salarySquares += salary * salary;
+            divisions.merge(person.getDivision().getName(), 1, Integer::sum);
+        }
+
+        private RosterEstimate toEstimate(long dataBytes) {
+            Map<String, Interval> shares = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> entry : divisions.entrySet()) {
+                shares.put(entry.getKey(), proportion(entry.getValue(), valid));
+            }
+            return new RosterEstimate(valid, count(dataBytes), proportion(male, valid),
+                    mean(salarySum, salarySquares, valid), shares);
+        }
+
+        /**
+         * Количество записей: объем данных / средняя длина строки * доля валидных строк.
+         * Интервал учитывает разброс обоих множителей (дельта-метод, множители считаются
+         * независимыми): относительные стандартные ошибки складываются квадратично.
+         */
+        private Interval count(long dataBytes) {
+            if (lines == 0) {
+                return new Interval(0, 0, 0);
+            }
+            double meanLength = lineBytesSum / lines;
+            if (meanLength <= 0) {
+                return new Interval(0, 0, Double.POSITIVE_INFINITY);
+            }
+            double lengthVariance = lines > 1
+                    ? Math.max(0, (lineBytesSquares - lines * meanLength * meanLength) / (lines - 1))
+                    : 0;
+            double validShare = (double) valid / lines;
+            double estimate = dataBytes / meanLength * validShare;
+            if (valid == 0) {
+                return new Interval(0, 0, dataBytes / meanLength);
+            }
+
+            double lengthError = Math.sqrt(lengthVariance / lines) / meanLength;
+            double shareError = Math.sqrt(validShare * (1 - validShare) / lines) / validShare;
+            double margin = Z_95 * estimate * Math.sqrt(lengthError * lengthError + shareError * shareError);
+            return new Interval(estimate, Math.max(0, estimate - margin), estimate + margin);
+        }
+
+        private static Interval proportion(int hits, int total) {
+            if (total == 0) {
+                return new Interval(0, 0, 1);
+            }
+            double p = (double) hits / total;
+            double margin = Z_95 * Math.sqrt(p * (1 - p) / total);
+            return new Interval(p, Math.max(0, p - margin), Math.min(1, p + margin));
+        }
+
+        private static Interval mean(double sum, double squares, int n) {
+            if (n == 0) {
+                return new Interval(0, 0, 0);
+            }
+            double mean = sum / n;
+            double variance = n > 1 ? Math.max(0, (squares - n * mean * mean) / (n - 1)) : 0;
+            double margin = Z_95 * Math.sqrt(variance / n);
+            return new Interval(mean, mean - margin, mean + margin);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package lab4.index;
+
+import lab4.model.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Триграммный индекс имен сотрудников для поиска по подстроке и префиксу.
+ * <p>
+ * Имя приводится к нижнему регистру и дополняется в начале двумя служебными символами,
+ * после чего каждая тройка подряд идущих символов получает список номеров сотрудников.
+ * Списки хранятся сжатыми: разности соседних номеров в формате varint, а каждые
+ * {@value #SKIP_INTERVAL} номеров сохраняется точка пропуска (номер и смещение в байтах), чтобы
+ * при пересечении перескакивать длинные участки без декодирования. Запрос пересекает
+ * списки своих триграмм, начиная с самого короткого, и проверяет найденных кандидатов
+ * по исходному имени. Запросы короче трех символов выполняются полным просмотром.
+ * <p>
+ * Индекс можно заполнять прямо во время парсинга ({@link Consumer}); методы синхронизированы.
+ */
+public class NameTrigramIndex implements Consumer<Person> {
+    private static final char START = '\u0002';
+    private static final String PADDING = "" + START + START;
+    private static final int SKIP_INTERVAL = 128;
+
+    private final List<Person> persons = new ArrayList<>();
+    private final List<String> normalizedNames = new ArrayList<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Строит индекс по коллекции сотрудников.
+     *
+     * @param persons сотрудники
+     * @return заполненный индекс
+     */
+    public static NameTrigramIndex build(Collection<Person> persons) {
+        NameTrigramIndex index = new NameTrigramIndex();
+        persons.forEach(index);
+        return index;
+    }
+
+    /**
+     * Добавляет сотрудника в индекс.
+     *
+     * @param person сотрудник
+     */
+    @Override
+    public synchronized void accept(Person person) {
+        if (person == null) {
+            throw new IllegalArgumentException("Сотрудник не может быть null");
+        }
+        int ordinal = persons.size();
+        String name = normalize(person.getName());
+        persons.add(person);
+        normalizedNames.add(name);
+
+        String padded = PADDING + name;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            postings.computeIfAbsent(trigram(padded, i), key -> new Postings()).add(ordinal);
+        }
+    }
+
+    /**
+     * Ищет сотрудников, в имени которых встречается подстрока (без учета регистра).
+     *
+     * @param query подстрока
+     * @return найденные сотрудники в порядке добавления
+     */
+    public List<Person> findBySubstring(String query) {
+        return findBySubstring(query, null);
+    }
+
+    /**
+     * Ищет сотрудников подразделения, в имени которых встречается подстрока.
+     *
+     * @param query подстрока
+     * @param division название подразделения или null для поиска по всем
+     * @return найденные сотрудники в порядке добавления
+     */
+    public synchronized List<Person> findBySubstring(String query, String division) {
+        String normalized = normalizeQuery(query);
+        return search(normalized, normalized, false, division);
+    }
+
+    /**
+     * Ищет сотрудников, имя которых начинается с префикса (без учета регистра).
+     *
+     * @param prefix префикс
+     * @return найденные сотрудники в порядке добавления
+     */
+    public List<Person> findByPrefix(String prefix) {
+        return findByPrefix(prefix, null);
+    }
+
+    /**
+     * Ищет сотрудников подразделения, имя которых начинается с префикса.
+     *
+     * @param prefix префикс
+     * @param division название подразделения или null для поиска по всем
+     * @return найденные сотрудники в порядке добавления
+     */
+    public synchronized List<Person> findByPrefix(String prefix, String division) {
+        String normalized = normalizeQuery(prefix);
+        return search(PADDING + normalized, normalized, true, division);
+    }
+
+    /**
+     * Возвращает количество проиндексированных сотрудников.
+     *
+     * @return количество сотрудников
+     */
+    public synchronized int size() {
+        return persons.size();
+    }
+
+    private List<Person> search(String pattern, String query, boolean prefix, String division) {
+        List<Person> result = new ArrayList<>();
+        if (pattern.length() < 3) {
+            // Подстрока слишком короткая для триграмм - полный просмотр
+            for (int ordinal = 0; ordinal < persons.size(); ordinal++) {
+                collect(ordinal, query, prefix, division, result);
+            }
+            return result;
+        }
+
+        Postings[] lists = new Postings[pattern.length() - 2];
+        for (int i = 0; i < lists.length; i++) {
+            Postings list = postings.get(trigram(pattern, i));
+            if (list == null) {
+                return result;
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.count));
+
+        Postings.Cursor[] cursors = new Postings.Cursor[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            cursors[i] = lists[i].cursor();
+        }
+
+        // Пересечение: кандидаты из самого короткого списка проверяются по остальным
+        candidates:
+        for (int candidate = cursors[0].next(); candidate >= 0; candidate = cursors[0].next()) {
+            for (int i = 1; i < cursors.length; i++) {
+                int found = cursors[i].advanceTo(candidate);
+                if (found < 0) {
+                    break candidates;
+                }
+                if (found != candidate) {
+                    continue candidates;
+                }
+            }
+            collect(candidate, query, prefix, division, result);
+        }
+        return result;
+    }
+
+    /**
+     * Проверяет кандидата по исходному имени и подразделению.
+     */
+    private void collect(int ordinal, String query, boolean prefix, String division, List<Person> result) {
+        String name = normalizedNames.get(ordinal);
+        boolean matches = prefix ? name.startsWith(query) : name.contains(query);
+        if (!matches) {
+            return;
+        }
+        Person person = persons.get(ordinal);
+        if (division == null || division.trim().equals(person.getDivision().getName())) {
+            result.add(person);
+        }
+    }
+
+    private static String normalizeQuery(String query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Строка поиска не может быть null");
+        }
+        return normalize(query);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    /**
+     * Сжатый список возрастающих номеров: разности в формате varint и точки пропуска.
+     * Точка пропуска i хранит номер с индексом (i + 1) * SKIP_INTERVAL - 1 и смещение сразу после него.
+     */
+    private static final class Postings {
+        private byte[] data = new byte[4];
+        private int length;
+        private int count;
+        private int last = -1;
+        private int[] skipOrdinals = new int[0];
+        private int[] skipOffsets = new int[0];
+        private int skipCount;
+
+        private void add(int ordinal) {
+            if (ordinal == last) {
+                // Триграмма повторяется в одном имени
+                return;
+            }
+            int delta = ordinal - last;
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((delta & ~0x7F) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+            last = ordinal;
+            count++;
+
+            if (count % SKIP_INTERVAL == 0) {
+                if (skipCount == skipOrdinals.length) {
+                    int capacity = Math.max(4, skipCount * 2);
+                    skipOrdinals = Arrays.copyOf(skipOrdinals, capacity);
+                    skipOffsets = Arrays.copyOf(skipOffsets, capacity);
+                }
+                skipOrdinals[skipCount] = ordinal;
+                skipOffsets[skipCount] = length;
+                skipCount++;
+            }
+        }
+
+        private Cursor cursor() {
+            return new Cursor();
+        }
+
+        /**
+         * Последовательное чтение списка.
+         */
+        private final class Cursor {
+            private int position;
+            private int current = -1;
+            private int skip;
+
+            /**
+             * Возвращает следующий номер или -1, если список закончился.
+             */
+            private int next() {
+                if (position >= length) {
+                    return -1;
+                }
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                current += delta;
+                return current;
+            }
+
+            /**
+             * Продвигается до первого номера не меньше target; -1, если такого нет.
+             */
+            private int advanceTo(int target) {
+                // Перескакиваем блоки, последний номер которых меньше target
+                while (skip < skipCount && skipOrdinals[skip] < target) {
+                    if (skipOffsets[skip] > position) {
+                        position = skipOffsets[skip];
+                        current = skipOrdinals[skip];
+                    }
+                    skip++;
+                }
+                int value = current;
+                while (value < target) {
+                    value = next();
+                    if (value < 0) {
+                        return -1;
+                    }
+                }
+                return value;
+            }
+        }
+    }
+}
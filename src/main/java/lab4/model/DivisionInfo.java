@@ -0,0 +1,61 @@
+package lab4.model;
+
+import java.util.Objects;
+
+/**
+ * Справочные данные подразделения: центр затрат, руководитель и регион.
+ * Загружаются из отдельного CSV файла и связываются с {@link Division} по названию.
+ */
+public class DivisionInfo {
+    private final String name;
+    private final String costCenter;
+    private final String manager;
+    private final String region;
+
+    /**
+     * Конструктор для создания справочной записи подразделения.
+     *
+     * @param name название подразделения (ключ связывания)
+     * @param costCenter центр затрат
+     * @param manager руководитель
+     * @param region регион
+     * @throws IllegalArgumentException если название null или пустое
+     */
+    public DivisionInfo(String name, String costCenter, String manager, String region) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Название подразделения не может быть пустым");
+        }
+        this.name = name.trim();
+        this.costCenter = costCenter == null ? "" : costCenter.trim();
+        this.manager = manager == null ? "" : manager.trim();
+        this.region = region == null ? "" : region.trim();
+    }
+
+    // Геттеры
+    public String getName() { return name; }
+    public String getCostCenter() { return costCenter; }
+    public String getManager() { return manager; }
+    public String getRegion() { return region; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DivisionInfo that = (DivisionInfo) o;
+        return Objects.equals(name, that.name) &&
+                Objects.equals(costCenter, that.costCenter) &&
+                Objects.equals(manager, that.manager) &&
+                Objects.equals(region, that.region);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, costCenter, manager, region);
+    }
+
+    @Override
+    public String toString() {
+        return "DivisionInfo{name='" + name + "', costCenter='" + costCenter +
+                "', manager='" + manager + "', region='" + region + "'}";
+    }
+}
@@ -0,0 +1,58 @@
+package lab4.model;
+
+import java.util.Objects;
+
+/**
+ * Сотрудник, дополненный справочными данными своего подразделения.
+ * Справочные данные могут отсутствовать, если подразделения нет в справочнике.
+ */
+public class EnrichedPerson {
+    private final Person person;
+    private final DivisionInfo divisionInfo;
+
+    /**
+     * Конструктор для создания обогащенной записи.
+     *
+     * @param person сотрудник
+     * @param divisionInfo справочные данные подразделения или null, если они не найдены
+     * @throws IllegalArgumentException если сотрудник null
+     */
+    public EnrichedPerson(Person person, DivisionInfo divisionInfo) {
+        if (person == null) {
+            throw new IllegalArgumentException("Сотрудник не может быть null");
+        }
+        this.person = person;
+        this.divisionInfo = divisionInfo;
+    }
+
+    // Геттеры
+    public Person getPerson() { return person; }
+    public DivisionInfo getDivisionInfo() { return divisionInfo; }
+
+    /**
+     * Проверяет, найдено ли подразделение сотрудника в справочнике.
+     *
+     * @return true если справочные данные присутствуют
+     */
+    public boolean isMatched() {
+        return divisionInfo != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EnrichedPerson that = (EnrichedPerson) o;
+        return Objects.equals(person, that.person) && Objects.equals(divisionInfo, that.divisionInfo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(person, divisionInfo);
+    }
+
+    @Override
+    public String toString() {
+        return "EnrichedPerson{person=" + person + ", divisionInfo=" + divisionInfo + "}";
+    }
+}
@@ -0,0 +1,8 @@
+package lab4.query;
+
+/**
+ * Агрегатные функции по зарплате.
+ */
+public enum Aggregate {
+    COUNT, SUM, AVG, MIN, MAX
+}
@@ -0,0 +1,112 @@
+package lab4.query;
+
+import lab4.model.Person;
+import lab4.store.OffHeapPersonStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Колоночный снимок сотрудников для движка запросов.
+ * Каждое поле хранится в отдельном примитивном массиве, подразделения - в виде индексов словаря,
+ * поэтому скомпилированный запрос обходит данные без распаковки {@link Long} и {@link Double}.
+ */
+public final class EmployeeTable {
+    final long[] ids;
+    final double[] salaries;
+    final int[] birthEpochDays;
+    final byte[] genders;
+    final int[] divisions;
+    private final List<String> divisionNames;
+    private final Map<String, Integer> divisionIndex;
+
+    private EmployeeTable(int size) {
+        this.ids = new long[size];
+        this.salaries = new double[size];
+        this.birthEpochDays = new int[size];
+        this.genders = new byte[size];
+        this.divisions = new int[size];
+        this.divisionNames = new ArrayList<>();
+        this.divisionIndex = new HashMap<>();
+    }
+
+    /**
+     * Строит таблицу по списку сотрудников.
+     *
+     * @param persons список сотрудников
+     * @return колоночная таблица
+     */
+    public static EmployeeTable of(List<Person> persons) {
+        if (persons == null) {
+            throw new IllegalArgumentException("Список сотрудников не может быть null");
+        }
+        EmployeeTable table = new EmployeeTable(persons.size());
+        for (int i = 0; i < persons.size(); i++) {
+            Person person = persons.get(i);
+            table.set(i, person.getId(), person.getSalary(), person.getBirthDate().toEpochDay(),
+                    person.getGender(), person.getDivision().getName());
+        }
+        return table;
+    }
+
+    /**
+     * Строит таблицу по хранилищу вне кучи.
+     *
+     * @param store хранилище сотрудников
+     * @return колоночная таблица
+     */
+    public static EmployeeTable of(OffHeapPersonStore store) {
+        if (store == null) {
+            throw new IllegalArgumentException("Хранилище не может быть null");
+        }
+        EmployeeTable table = new EmployeeTable(store.size());
+        for (int i = 0; i < store.size(); i++) {
+            table.set(i, store.getId(i), store.getSalary(i), store.getBirthDate(i).toEpochDay(),
+                    store.getGender(i), store.getDivision(i).getName());
+        }
+        return table;
+    }
+
+    /**
+     * Возвращает количество строк.
+     *
+     * @return количество сотрудников
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Возвращает названия подразделений в порядке их индексов.
+     *
+     * @return неизменяемый список названий
+     */
+    public List<String> getDivisionNames() {
+        return Collections.unmodifiableList(divisionNames);
+    }
+
+    /**
+     * Возвращает индекс подразделения в словаре таблицы.
+     *
+     * @param name название подразделения
+     * @return индекс или -1, если подразделения нет в таблице
+     */
+    int divisionOrdinal(String name) {
+        Integer ordinal = divisionIndex.get(name);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    private void set(int row, long id, double salary, long birthEpochDay, Person.Gender gender, String division) {
+        ids[row] = id;
+        salaries[row] = salary;
+        birthEpochDays[row] = (int) birthEpochDay;
+        genders[row] = (byte) gender.ordinal();
+        divisions[row] = divisionIndex.computeIfAbsent(division, name -> {
+            divisionNames.add(name);
+            return divisionNames.size() - 1;
+        });
+    }
+}
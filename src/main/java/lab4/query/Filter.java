@@ -0,0 +1,98 @@
+package lab4.query;
+
+import lab4.model.Person;
+
+import java.time.LocalDate;
+
+/**
+ * Условие отбора строк. При компиляции запроса условие один раз превращается
+ * в {@link RowPredicate}, замкнутый на конкретные колонки таблицы.
+ */
+public interface Filter {
+
+    /**
+     * Компилирует условие для таблицы.
+     *
+     * @param table таблица, по которой будет выполняться запрос
+     * @return предикат по номеру строки
+     */
+    RowPredicate compile(EmployeeTable table);
+
+    /**
+     * Предикат по номеру строки таблицы.
+     */
+    @FunctionalInterface
+    interface RowPredicate {
+        boolean test(int row);
+    }
+
+    /**
+     * Зарплата в диапазоне [min, max].
+     */
+    static Filter salaryBetween(double min, double max) {
+        return table -> {
+            double[] salaries = table.salaries;
+            return row -> salaries[row] >= min && salaries[row] <= max;
+        };
+    }
+
+    /**
+     * Сотрудники указанного пола.
+     */
+    static Filter gender(Person.Gender gender) {
+        if (gender == null) {
+            throw new IllegalArgumentException("Пол не может быть null");
+        }
+        byte ordinal = (byte) gender.ordinal();
+        return table -> {
+            byte[] genders = table.genders;
+            return row -> genders[row] == ordinal;
+        };
+    }
+
+    /**
+     * Сотрудники подразделения. Название переводится в индекс словаря один раз при компиляции.
+     */
+    static Filter division(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Название подразделения не может быть null");
+        }
+        return table -> {
+            int ordinal = table.divisionOrdinal(name.trim());
+            if (ordinal < 0) {
+                return row -> false;
+            }
+            int[] divisions = table.divisions;
+            return row -> divisions[row] == ordinal;
+        };
+    }
+
+    /**
+     * Дата рождения в диапазоне [from, to].
+     */
+    static Filter bornBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Границы диапазона дат не могут быть null");
+        }
+        int min = (int) from.toEpochDay();
+        int max = (int) to.toEpochDay();
+        return table -> {
+            int[] days = table.birthEpochDays;
+            return row -> days[row] >= min && days[row] <= max;
+        };
+    }
+
+    /**
+     * Конъюнкция условий.
+     */
+    static Filter and(Filter first, Filter second) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("Условие не может быть null");
+        }
+        return table -> {
+            RowPredicate a = first.compile(table);
+            RowPredicate b = second.compile(table);
+            return row -> a.test(row) && b.test(row);
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package lab4.query;
+
+import lab4.model.Person;
+
+/**
+ * Ключ группировки запроса.
+ */
+public enum GroupBy {
+    NONE, DIVISION, GENDER;
+
+    /**
+     * Количество групп для таблицы.
+     */
+    int groupCount(EmployeeTable table) {
+        switch (this) {
+            case DIVISION:
+                return table.getDivisionNames().size();
+            case GENDER:
+                return Person.Gender.values().length;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Название группы по ее номеру.
+     */
+    String label(EmployeeTable table, int group) {
+        switch (this) {
+            case DIVISION:
+                return table.getDivisionNames().get(group);
+            case GENDER:
+                return Person.Gender.values()[group].name();
+            default:
+                return "ALL";
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package lab4.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Запрос "фильтр / группировка / агрегация" по сотрудникам.
+ * <p>
+ * Запрос описывается один раз и компилируется для таблицы методом {@link #compile(EmployeeTable)}:
+ * условия замыкаются на колонки, названия подразделений переводятся в индексы, группировка - в массив ключей.
+ * Скомпилированный запрос выполняется одним циклом по примитивным массивам в одном потоке
+ * или по частям в {@link ForkJoinPool#commonPool()} с последующим слиянием частичных результатов.
+ *
+ * <pre>{@code
+ * QueryResult result = Query.builder()
+ *         .where(Filter.gender(Person.Gender.FEMALE))
+ *         .groupBy(GroupBy.DIVISION)
+ *         .select(Aggregate.COUNT, Aggregate.AVG)
+ *         .build()
+ *         .compile(table)
+ *         .executeParallel();
+ * }</pre>
+ */
+public final class Query {
+    private static final int MIN_ROWS_PER_TASK = 1 << 14;
+
+    private final Filter filter;
+    private final GroupBy groupBy;
+    private final List<Aggregate> aggregates;
+
+    private Query(Builder builder) {
+        this.filter = builder.filter;
+        this.groupBy = builder.groupBy;
+        this.aggregates = List.copyOf(builder.aggregates);
+    }
+
+    /**
+     * Создает построитель запроса.
+     *
+     * @return новый построитель
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Компилирует запрос для таблицы.
+     *
+     * @param table таблица сотрудников
+     * @return скомпилированный запрос, который можно выполнять многократно
+     */
+    public Compiled compile(EmployeeTable table) {
+        if (table == null) {
+            throw new IllegalArgumentException("Таблица не может быть null");
+        }
+        return new Compiled(table);
+    }
+
+    /**
+     * Скомпилированный запрос, привязанный к таблице.
+     */
+    public final class Compiled {
+        private final EmployeeTable table;
+        private final Filter.RowPredicate predicate;
+        private final int[] keys;
+        private final int groupCount;
+
+        private Compiled(EmployeeTable table) {
+            this.table = table;
+            this.predicate = filter == null ? null : filter.compile(table);
+            this.groupCount = groupBy.groupCount(table);
+            switch (groupBy) {
+                case DIVISION:
+                    this.keys = table.divisions;
+                    break;
+                case GENDER:
+                    int[] genderKeys = new int[table.size()];
+                    for (int i = 0; i < genderKeys.length; i++) {
+                        genderKeys[i] = table.genders[i];
+                    }
+                    this.keys = genderKeys;
+                    break;
+                default:
+                    this.keys = null;
+            }
+        }
+
+        /**
+         * Выполняет запрос в текущем потоке.
+         *
+         * @return результат запроса
+         */
+        public QueryResult execute() {
+            Accumulator acc = new Accumulator(groupCount);
+            scan(acc, 0, table.size());
+            return toResult(acc);
+        }
+
+        /**
+         * Выполняет запрос параллельно в общем пуле ForkJoin.
+         *
+         * @return результат запроса
+         */
+        public QueryResult executeParallel() {
+            int rows = table.size();
+            int parallelism = ForkJoinPool.commonPool().getParallelism();
+            int tasks = Math.max(1, Math.min(parallelism * 4, rows / MIN_ROWS_PER_TASK));
+            if (tasks == 1) {
+                return execute();
+            }
+
+            List<ForkJoinTask<Accumulator>> futures = new ArrayList<>(tasks);
+            int chunk = (rows + tasks - 1) / tasks;
+            for (int from = 0; from < rows; from += chunk) {
+                int start = from;
+                int end = Math.min(rows, from + chunk);
+                futures.add(ForkJoinPool.commonPool().submit(() -> {
+                    Accumulator acc = new Accumulator(groupCount);
+                    scan(acc, start, end);
+                    return acc;
+                }));
+            }
+
+            Accumulator total = new Accumulator(groupCount);
+            for (ForkJoinTask<Accumulator> future : futures) {
+                total.merge(future.join());
+            }
+            return toResult(total);
+        }
+
+        /**
+         * Основной цикл: отбор, вычисление группы и обновление агрегатов.
+         */
+        private void scan(Accumulator acc, int from, int to) {
+            double[] salaries = table.salaries;
+            Filter.RowPredicate p = predicate;
+            int[] k = keys;
+            long[] count = acc.count;
+            double[] sum = acc.sum;
+            double[] min = acc.min;
+            double[] max = acc.max;
+
+            for (int row = from; row < to; row++) {
+                if (p != null && !p.test(row)) {
+                    continue;
+                }
+                int g = k == null ? 0 : k[row];
+                double salary = salaries[row];
+                count[g]++;
+                sum[g] += salary;
+                if (salary < min[g]) {
+                    min[g] = salary;
+                }
+                if (salary > max[g]) {
+                    max[g] = salary;
+                }
+            }
+        }
+
+        private QueryResult toResult(Accumulator acc) {
+            List<String> labels = new ArrayList<>();
+            List<double[]> rows = new ArrayList<>();
+            for (int g = 0; g < groupCount; g++) {
+                if (acc.count[g] == 0 && groupBy != GroupBy.NONE) {
+                    continue;
+                }
+                double[] values = new double[aggregates.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = acc.value(aggregates.get(i), g);
+                }
+                labels.add(groupBy.label(table, g));
+                rows.add(values);
+            }
+            return new QueryResult(aggregates, labels, rows);
+        }
+    }
+
+    /**
+     * Частичные агрегаты по группам.
+     */
+    private static final class Accumulator {
+        private final long[] count;
+        private final double[] sum;
+        private final double[] min;
+        private final double[] max;
+
+        private Accumulator(int groups) {
+            count = new long[groups];
+            sum = new double[groups];
+            min = new double[groups];
+            max = new double[groups];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        private void merge(Accumulator other) {
+            for (int g = 0; g < count.length; g++) {
+                count[g] += other.count[g];
+                sum[g] += other.sum[g];
+                min[g] = Math.min(min[g], other.min[g]);
+                max[g] = Math.max(max[g], other.max[g]);
+            }
+        }
+
+        private double value(Aggregate aggregate, int g) {
+            switch (aggregate) {
+                case COUNT:
+                    return count[g];
+                case SUM:
+                    return sum[g];
+                case AVG:
+                    return count[g] == 0 ? 0.0 : sum[g] / count[g];
+                case MIN:
+                    return count[g] == 0 ? 0.0 : min[g];
+                default:
+                    return count[g] == 0 ? 0.0 : max[g];
+            }
+        }
+    }
+
+    /**
+     * Построитель запроса.
+     */
+    public static final class Builder {
+        private Filter filter;
+        private GroupBy groupBy = GroupBy.NONE;
+        private final List<Aggregate> aggregates = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Добавляет условие отбора; несколько вызовов объединяются через "и".
+         */
+        public Builder where(Filter condition) {
+            if (condition == null) {
+                throw new IllegalArgumentException("Условие не может быть null");
+            }
+            filter = filter == null ? condition : Filter.and(filter, condition);
+            return this;
+        }
+
+        public Builder groupBy(GroupBy key) {
+            if (key == null) {
+                throw new IllegalArgumentException("Ключ группировки не может быть null");
+            }
+            groupBy = key;
+            return this;
+        }
+
+        public Builder select(Aggregate... functions) {
+            aggregates.addAll(Arrays.asList(functions));
+            return this;
+        }
+
+        /**
+         * Создает запрос.
+         *
+         * @return запрос
+         * @throws IllegalStateException если не выбрано ни одной агрегатной функции
+         */
+        public Query build() {
+            if (aggregates.isEmpty()) {
+                throw new IllegalStateException("Не выбрано ни одной агрегатной функции");
+            }
+            return new Query(this);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package lab4.query;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Результат запроса: по строке на каждую непустую группу и по колонке на каждую агрегатную функцию.
+ */
+public final class QueryResult {
+    private final List<Aggregate> aggregates;
+    private final List<String> groups;
+    private final List<double[]> values;
+
+    QueryResult(List<Aggregate> aggregates, List<String> groups, List<double[]> values) {
+        this.aggregates = aggregates;
+        this.groups = Collections.unmodifiableList(groups);
+        this.values = values;
+    }
+
+    /**
+     * Возвращает названия групп в порядке строк результата.
+     *
+     * @return неизменяемый список названий групп
+     */
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Возвращает значение агрегата для группы.
+     *
+     * @param group название группы
+     * @param aggregate агрегатная функция
+     * @return значение или 0, если группа пуста
+     * @throws IllegalArgumentException если функция не была выбрана в запросе
+     */
+    public double get(String group, Aggregate aggregate) {
+        int column = aggregates.indexOf(aggregate);
+        if (column < 0) {
+            throw new IllegalArgumentException("Функция не выбрана в запросе: " + aggregate);
+        }
+        int row = groups.indexOf(group);
+        return row < 0 ? 0.0 : values.get(row)[column];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("QueryResult{");
+        for (int row = 0; row < groups.size(); row++) {
+            sb.append(row == 0 ? "" : ", ").append(groups.get(row)).append('=');
+            double[] rowValues = values.get(row);
+            for (int i = 0; i < rowValues.length; i++) {
+                sb.append(i == 0 ? "[" : ", ").append(aggregates.get(i)).append(':')
+                        .append(String.format("%.2f", rowValues[i]));
+            }
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,55 @@
+package lab4.shard;
+
+import java.util.Objects;
+
+/**
+ * Часть CSV файла: диапазон байтов [start, end), обрабатываемый одним рабочим процессом.
+ */
+public final class Shard {
+    private final String path;
+    private final long start;
+    private final long end;
+
+    /**
+     * Конструктор для создания части файла.
+     *
+     * @param path путь к файлу
+     * @param start начало диапазона (включительно)
+     * @param end конец диапазона (не включительно)
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public Shard(String path, long start, long end) {
+        if (path == null || path.trim().isEmpty()) {
+            throw new IllegalArgumentException("Путь к файлу не может быть пустым");
+        }
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Неверный диапазон: [" + start + ", " + end + ")");
+        }
+        this.path = path;
+        this.start = start;
+        this.end = end;
+    }
+
+    // Геттеры
+    public String getPath() { return path; }
+    public long getStart() { return start; }
+    public long getEnd() { return end; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Shard shard = (Shard) o;
+        return start == shard.start && end == shard.end && path.equals(shard.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "Shard{path='" + path + "', start=" + start + ", end=" + end + "}";
+    }
+}
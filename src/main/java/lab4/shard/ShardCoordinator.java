@@ -0,0 +1,187 @@
+package lab4.shard;
+
+import lab4.stats.RosterStatistics;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Координатор шардированной загрузки в нескольких процессах.
+ * <p>
+ * Делит входные CSV файлы на диапазоны байтов, запускает для каждого диапазона отдельную JVM
+ * ({@link ShardWorker}) и получает от нее через канал стандартного вывода компактную частичную
+ * статистику со словарем подразделений. Частичные статистики объединяются в одну.
+ * Одновременно работает не больше заданного числа процессов, поэтому загрузка не упирается
+ * в кучу и сборку мусора одной JVM.
+ */
+public class ShardCoordinator {
+    private static final long DEFAULT_SHARD_BYTES = 64L * 1024 * 1024;
+
+    private final int workers;
+    private final long shardBytes;
+    private final List<String> jvmOptions;
+
+    /**
+     * Конструктор с размером части по умолчанию (64 МБ).
+     *
+     * @param workers максимальное количество одновременно работающих процессов
+     */
+    public ShardCoordinator(int workers) {
+        this(workers, DEFAULT_SHARD_BYTES, List.of());
+    }
+
+    /**
+     * Конструктор для создания координатора.
+     *
+     * @param workers максимальное количество одновременно работающих процессов
+     * @param shardBytes размер части файла в байтах
+     * @param jvmOptions дополнительные параметры JVM рабочих процессов (например, -Xmx)
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public ShardCoordinator(int workers, long shardBytes, List<String> jvmOptions) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Количество процессов должно быть положительным");
+        }
+        if (shardBytes <= 0) {
+            throw new IllegalArgumentException("Размер части должен быть положительным");
+        }
+        if (jvmOptions == null) {
+            throw new IllegalArgumentException("Параметры JVM не могут быть null");
+        }
+        this.workers = workers;
+        this.shardBytes = shardBytes;
+        this.jvmOptions = List.copyOf(jvmOptions);
+    }
+
+    /**
+     * Загружает файлы в рабочих процессах и объединяет частичные статистики.
+     *
+     * @param csvFilePaths пути к CSV файлам на диске
+     * @param separator разделитель полей
+     * @return объединенная статистика
+     * @throws IOException если файл не найден или рабочий процесс завершился с ошибкой
+     * @throws InterruptedException если ожидание процессов прервано
+     */
+    public RosterStatistics ingest(List<String> csvFilePaths, char separator)
+            throws IOException, InterruptedException {
+
+        List<Shard> shards = split(csvFilePaths);
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, shards.size())));
+        try {
+            List<Future<RosterStatistics>> futures = new ArrayList<>();
+            for (Shard shard : shards) {
+                futures.add(pool.submit(() -> runWorker(shard, separator)));
+            }
+
+            RosterStatistics total = new RosterStatistics();
+            for (Future<RosterStatistics> future : futures) {
+                try {
+                    total.merge(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    throw new IOException("Ошибка рабочего процесса: " + cause.getMessage(), cause);
+                }
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Делит файлы на части не больше заданного размера.
+     * Границы частей выравниваются по строкам уже рабочими процессами.
+     *
+     * @param csvFilePaths пути к CSV файлам на диске
+     * @return список частей
+     * @throws FileNotFoundException если файл не найден
+     */
+    public List<Shard> split(List<String> csvFilePaths) throws FileNotFoundException {
+        if (csvFilePaths == null || csvFilePaths.isEmpty()) {
+            throw new IllegalArgumentException("Список файлов не может быть пустым");
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        for (String path : csvFilePaths) {
+            File file = new File(path);
+            if (!file.isFile()) {
+                throw new FileNotFoundException("Файл не найден: " + path);
+            }
+            long size = file.length();
+            String absolutePath = file.getAbsolutePath();
+            long start = 0;
+            do {
+                long end = Math.min(size, start + shardBytes);
+                shards.add(new Shard(absolutePath, start, end));
+                start = end;
+            } while (start < size);
+        }
+        return shards;
+    }
+
+    /**
+     * Запускает рабочий процесс для части файла и читает его частичную статистику.
+     */
+    private RosterStatistics runWorker(Shard shard, char separator) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(workerClassPath());
+        command.add(ShardWorker.class.getName());
+        command.add(shard.getPath());
+        command.add(Long.toString(shard.getStart()));
+        command.add(Long.toString(shard.getEnd()));
+        command.add(String.valueOf(separator));
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try {
+            RosterStatistics statistics;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream()))) {
+                statistics = RosterStatistics.readFrom(in);
+            }
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException("Рабочий процесс для " + shard + " завершился с кодом " + exitCode);
+            }
+            return statistics;
+        } catch (IOException e) {
+            int exitCode = process.waitFor();
+            throw new IOException("Рабочий процесс для " + shard + " завершился с кодом " + exitCode, e);
+        } finally {
+            process.destroy();
+        }
+    }
+
+    private static String javaExecutable() {
+        return ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    }
+
+    /**
+     * Classpath рабочего процесса: модули и classpath текущей JVM.
+     * Рабочий процесс запускается в безымянном модуле.
+     */
+    private static String workerClassPath() {
+        String modulePath = System.getProperty("jdk.module.path", "");
+        String classPath = System.getProperty("java.class.path", "");
+        if (modulePath.isEmpty()) {
+            return classPath;
+        }
+        return classPath.isEmpty() ? modulePath : modulePath + File.pathSeparator + classPath;
+    }
+}
@@ -0,0 +1,43 @@
+package lab4.shard;
+
+import lab4.csv.CsvParser;
+import lab4.stats.RosterStatistics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Рабочий процесс шардированной загрузки.
+ * Парсит свой диапазон файла и пишет частичную статистику в двоичном виде в стандартный вывод.
+ * Сообщения об ошибках пишутся в стандартный поток ошибок.
+ * <p>
+ * Аргументы: {@code <путь> <начало> <конец> <разделитель>}.
+ */
+public class ShardWorker {
+
+    /**
+     * Точка входа рабочего процесса.
+     *
+     * @param args путь к файлу, начало и конец диапазона, разделитель полей
+     */
+    public static void main(String[] args) {
+        if (args.length != 4 || args[3].length() != 1) {
+            System.err.println("Использование: ShardWorker <путь> <начало> <конец> <разделитель>");
+            System.exit(2);
+        }
+
+        try {
+            RosterStatistics statistics = new RosterStatistics();
+            new CsvParser().forEachPersonInRange(args[0], args[3].charAt(0),
+                    Long.parseLong(args[1]), Long.parseLong(args[2]), statistics);
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out));
+            statistics.writeTo(out);
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ошибка обработки части файла: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package lab4.stats;
+
+import lab4.model.Person;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Предагрегированный плотный куб по измерениям: подразделение, пол, возрастная группа и группа зарплаты.
+ * <p>
+ * В каждой ячейке хранятся количество сотрудников и сумма зарплат. Куб обновляется по одной записи
+ * (например, прямо во время {@link lab4.csv.CsvParser#forEachPerson}), а запросы со срезами и свертками
+ * суммируют только ячейки куба, не обращаясь к исходным записям.
+ * <p>
+ * Возраст считается на фиксированную дату {@code asOf}, чтобы группы не смещались со временем.
+ * Последние возрастная и зарплатная группы открыты сверху.
+ */
+public class RosterCube implements Consumer<Person> {
+
+    /**
+     * Измерения куба.
+     */
+    public enum Dimension {
+        DIVISION, GENDER, AGE_BAND, SALARY_BAND
+    }
+
+    private static final int GENDERS = Person.Gender.values().length;
+    private static final int INITIAL_DIVISIONS = 16;
+
+    private final LocalDate asOf;
+    private final int ageBandWidth;
+    private final int ageBands;
+    private final double salaryBandWidth;
+    private final int salaryBands;
+    private final int divisionStride;
+
+    private final Map<String, Integer> divisionIndex = new HashMap<>();
+    private final List<String> divisionNames = new ArrayList<>();
+    private long[] counts;
+    private double[] salarySums;
+
+    /**
+     * Конструктор с параметрами по умолчанию: возраст на сегодня группами по 10 лет (до 90+),
+     * зарплата группами по 1000 (до 20000+).
+     */
+    public RosterCube() {
+        this(LocalDate.now(), 10, 10, 1000.0, 21);
+    }
+
+    /**
+     * Конструктор для создания куба.
+     *
+     * @param asOf дата, на которую считается возраст
+     * @param ageBandWidth ширина возрастной группы в годах
+     * @param ageBands количество возрастных групп
+     * @param salaryBandWidth ширина группы зарплаты
+     * @param salaryBands количество групп зарплаты
+     * @throws IllegalArgumentException если параметры некорректны
+     */
+    public RosterCube(LocalDate asOf, int ageBandWidth, int ageBands, double salaryBandWidth, int salaryBands) {
+        if (asOf == null) {
+            throw new IllegalArgumentException("Дата расчета возраста не может быть null");
+        }
+        if (ageBandWidth <= 0 || ageBands <= 0) {
+            throw new IllegalArgumentException("Параметры возрастных групп должны быть положительными");
+        }
+        if (!(salaryBandWidth > 0) || salaryBands <= 0) {
+            throw new IllegalArgumentException("Параметры групп зарплаты должны быть положительными");
+        }
+        this.asOf = asOf;
+        this.ageBandWidth = ageBandWidth;
+        this.ageBands = ageBands;
+        this.salaryBandWidth = salaryBandWidth;
+        this.salaryBands = salaryBands;
+        this.divisionStride = GENDERS * ageBands * salaryBands;
+        this.counts = new long[INITIAL_DIVISIONS * divisionStride];
+        this.salarySums = new double[INITIAL_DIVISIONS * divisionStride];
+    }
+
+    /**
+     * Учитывает сотрудника в соответствующей ячейке куба.
+     *
+     * @param person сотрудник
+     */
+    @Override
+    public synchronized void accept(Person person) {
+        int division = divisionOrdinal(person.getDivision().getName());
+        int cell = cellIndex(division, person.getGender().ordinal(),
+                ageBandOf(person.getBirthDate()), salaryBandOf(person.getSalary()));
+        counts[cell]++;
+        salarySums[cell] += person.getSalary();
+    }
+
+    /**
+     * Возвращает количество сотрудников в срезе.
+     *
+     * @param slice срез куба
+     * @return количество сотрудников
+     */
+    public synchronized long count(Slice slice) {
+        long[] result = new long[1];
+        aggregate(slice, null, result, null);
+        return result[0];
+    }
+
+    /**
+     * Возвращает сумму зарплат в срезе.
+     *
+     * @param slice срез куба
+     * @return сумма зарплат
+     */
+    public synchronized double salarySum(Slice slice) {
+        double[] result = new double[1];
+        aggregate(slice, null, null, result);
+        return result[0];
+    }
+
+    /**
+     * Возвращает среднюю зарплату в срезе.
+     *
+     * @param slice срез куба
+     * @return средняя зарплата или 0, если срез пуст
+     */
+    public synchronized double averageSalary(Slice slice) {
+        long[] count = new long[1];
+        double[] sum = new double[1];
+        aggregate(slice, null, count, sum);
+        return count[0] == 0 ? 0.0 : sum[0] / count[0];
+    }
+
+    /**
+     * Сворачивает срез по измерению и возвращает количество сотрудников по его значениям.
+     * Для измерения {@link Dimension#DIVISION} индексы соответствуют {@link #getDivisionNames()}.
+     *
+     * @param dimension измерение группировки
+     * @param slice срез куба
+     * @return количество сотрудников по значениям измерения
+     */
+    public synchronized long[] countsBy(Dimension dimension, Slice slice) {
+        long[] result = new long[dimensionSize(dimension)];
+        aggregate(slice, dimension, result, null);
+        return result;
+    }
+
+    /**
+     * Сворачивает срез по измерению и возвращает сумму зарплат по его значениям.
+     *
+     * @param dimension измерение группировки
+     * @param slice срез куба
+     * @return сумма зарплат по значениям измерения
+     */
+    public synchronized double[] salarySumsBy(Dimension dimension, Slice slice) {
+        double[] result = new double[dimensionSize(dimension)];
+        aggregate(slice, dimension, null, result);
+        return result;
+    }
+
+    /**
+     * Возвращает названия подразделений в порядке их индексов в кубе.
+     *
+     * @return неизменяемый список названий
+     */
+    public synchronized List<String> getDivisionNames() {
+        return Collections.unmodifiableList(new ArrayList<>(divisionNames));
+    }
+
+    /**
+     * Вычисляет возрастную группу по дате рождения.
+     *
+     * @param birthDate дата рождения
+     * @return номер возрастной группы
+     */
+    public int ageBandOf(LocalDate birthDate) {
+        int age = Math.max(0, Period.between(birthDate, asOf).getYears());
+        return Math.min(age / ageBandWidth, ageBands - 1);
+    }
+
+    /**
+     * Вычисляет группу зарплаты.
+     *
+     * @param salary зарплата
+     * @return номер группы зарплаты
+     */
+    public int salaryBandOf(double salary) {
+        return (int) Math.min(Math.max(0, salary) / salaryBandWidth, salaryBands - 1);
+    }
+
+    /**
+     * Суммирует ячейки среза, при необходимости группируя по измерению.
+     */
+    private void aggregate(Slice slice, Dimension groupBy, long[] countsOut, double[] sumsOut) {
+        if (slice == null) {
+            throw new IllegalArgumentException("Срез не может быть null");
+        }
+
+        int divFrom = 0;
+        int divTo = divisionNames.size();
+        if (slice.division != null) {
+            Integer division = divisionIndex.get(slice.division);
+            if (division == null) {
+                return;
+            }
+            divFrom = division;
+            divTo = division + 1;
+        }
+        int genderFrom = slice.gender == null ? 0 : slice.gender.ordinal();
+        int genderTo = slice.gender == null ? GENDERS : genderFrom + 1;
+        int ageFrom = slice.ageBand < 0 ? 0 : slice.ageBand;
+        int ageTo = slice.ageBand < 0 ? ageBands : Math.min(slice.ageBand + 1, ageBands);
+        int salaryFrom = slice.salaryBand < 0 ? 0 : slice.salaryBand;
+        int salaryTo = slice.salaryBand < 0 ? salaryBands : Math.min(slice.salaryBand + 1, salaryBands);
+
+        for (int d = divFrom; d < divTo; d++) {
+            for (int g = genderFrom; g < genderTo; g++) {
+                for (int a = ageFrom; a < ageTo; a++) {
+                    int base = cellIndex(d, g, a, 0);
+                    for (int s = salaryFrom; s < salaryTo; s++) {
+                        int bucket = bucketOf(groupBy, d, g, a, s);
+                        if (countsOut != null) {
+                            countsOut[bucket] += counts[base + s];
+                        }
+                        if (sumsOut != null) {
+                            sumsOut[bucket] += salarySums[base + s];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int bucketOf(Dimension groupBy, int d, int g, int a, int s) {
+        if (groupBy == null) {
+            return 0;
+        }
+        switch (groupBy) {
+            case DIVISION:
+                return d;
+            case GENDER:
+                return g;
+            case AGE_BAND:
+                return a;
+            default:
+                return s;
+        }
+    }
+
+    private int dimensionSize(Dimension dimension) {
+        if (dimension == null) {
+            throw new IllegalArgumentException("Измерение не может быть null");
+        }
+        switch (dimension) {
+            case DIVISION:
+                return divisionNames.size();
+            case GENDER:
+                return GENDERS;
+            case AGE_BAND:
+                return ageBands;
+            default:
+                return salaryBands;
+        }
+    }
+
+    private int cellIndex(int division, int gender, int ageBand, int salaryBand) {
+        return division * divisionStride + (gender * ageBands + ageBand) * salaryBands + salaryBand;
+    }
+
+    /**
+     * Возвращает индекс подразделения, расширяя куб при появлении нового.
+     */
+    private int divisionOrdinal(String name) {
+        Integer existing = divisionIndex.get(name);
+        if (existing != null) {
+            return existing;
+        }
+
+        int ordinal = divisionNames.size();
+        if ((ordinal + 1) * divisionStride > counts.length) {
+            counts = Arrays.copyOf(counts, counts.length * 2);
+            salarySums = Arrays.copyOf(salarySums, salarySums.length * 2);
+        }
+        divisionIndex.put(name, ordinal);
+        divisionNames.add(name);
+        return ordinal;
+    }
+
+    /**
+     * Срез куба: фиксированные значения части измерений. Незаданные измерения сворачиваются.
+     */
+    public static final class Slice {
+        private String division;
+        private Person.Gender gender;
+        private int ageBand = -1;
+        private int salaryBand = -1;
+
+        private Slice() {
+        }
+
+        /**
+         * Создает срез без ограничений (весь куб).
+         *
+         * @return новый срез
+         */
+        public static Slice all() {
+            return new Slice();
+        }
+
+        public Slice division(String division) {
+            this.division = division;
+            return this;
+        }
+
+        public Slice gender(Person.Gender gender) {
+            this.gender = gender;
+            return this;
+        }
+
+        public Slice ageBand(int ageBand) {
+            this.ageBand = ageBand;
+            return this;
+        }
+
+        public Slice salaryBand(int salaryBand) {
+            this.salaryBand = salaryBand;
+            return this;
+        }
+    }
+}
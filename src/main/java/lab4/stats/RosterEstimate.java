@@ -0,0 +1,91 @@
+package lab4.stats;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Приблизительная статистика по выборке записей с 95% доверительными интервалами.
+ */
+public class RosterEstimate {
+    private final int sampleSize;
+    private final Interval count;
+    private final Interval maleShare;
+    private final Interval salaryMean;
+    private final Map<String, Interval> divisionShares;
+
+    /**
+     * Конструктор для создания оценки.
+     *
+     * @param sampleSize количество валидных записей в выборке
+     * @param count оценка общего количества записей
+     * @param maleShare оценка доли мужчин
+     * @param salaryMean оценка средней зарплаты
+     * @param divisionShares оценки долей подразделений
+     */
+    public RosterEstimate(int sampleSize, Interval count, Interval maleShare, Interval salaryMean,
+                          Map<String, Interval> divisionShares) {
+        this.sampleSize = sampleSize;
+        this.count = count;
+        this.maleShare = maleShare;
+        this.salaryMean = salaryMean;
+        this.divisionShares = Collections.unmodifiableMap(new LinkedHashMap<>(divisionShares));
+    }
+
+    // Геттеры
+    public int getSampleSize() { return sampleSize; }
+    public Interval getCount() { return count; }
+    public Interval getMaleShare() { return maleShare; }
+    public Interval getSalaryMean() { return salaryMean; }
+    public Map<String, Interval> getDivisionShares() { return divisionShares; }
+
+    /**
+     * Оценка доли женщин как дополнение доли мужчин.
+     *
+     * @return оценка доли женщин
+     */
+    public Interval getFemaleShare() {
+        return new Interval(1 - maleShare.getEstimate(), 1 - maleShare.getUpper(), 1 - maleShare.getLower());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RosterEstimate{sample=%d, count=%s, maleShare=%s, salaryMean=%s, divisions=%d}",
+                sampleSize, count, maleShare, salaryMean, divisionShares.size());
+    }
+
+    /**
+     * Точечная оценка с границами доверительного интервала.
+     */
+    public static final class Interval {
+        private final double estimate;
+        private final double lower;
+        private final double upper;
+
+        public Interval(double estimate, double lower, double upper) {
+            this.estimate = estimate;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        // Геттеры
+        public double getEstimate() { return estimate; }
+        public double getLower() { return lower; }
+        public double getUpper() { return upper; }
+
+        /**
+         * Проверяет, попадает ли значение в интервал.
+         *
+         * @param value значение
+         * @return true если значение в границах интервала
+         */
+        public boolean contains(double value) {
+            return value >= lower && value <= upper;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.4f [%.4f; %.4f]", estimate, lower, upper);
+        }
+    }
+}
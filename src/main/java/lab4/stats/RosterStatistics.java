@@ -0,0 +1,184 @@
+package lab4.stats;
+
+import lab4.model.Person;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Инкрементальная статистика по сотрудникам.
+ * Обновляется по одной записи, поэтому подходит для потоковой загрузки без повторного прохода по списку.
+ * Частичные статистики можно сериализовать в компактный двоичный вид и объединять,
+ * например при загрузке частей файла в разных процессах.
+ * Методы синхронизированы: запись и чтение могут выполняться из разных потоков.
+ */
+public class RosterStatistics implements Consumer<Person> {
+    private long count;
+    private long maleCount;
+    private long femaleCount;
+    private double salarySum;
+    private double minSalary = Double.POSITIVE_INFINITY;
+    private double maxSalary = Double.NEGATIVE_INFINITY;
+    private final Map<String, Long> divisionCounts = new LinkedHashMap<>();
+
+    /**
+     * Учитывает сотрудника в статистике.
+     *
+     * @param person сотрудник
+     */
+    @Override
+    public synchronized void accept(Person person) {
+        count++;
+        if (person.getGender() == Person.Gender.MALE) {
+            maleCount++;
+        } else {
+            femaleCount++;
+        }
+
+        double salary = person.getSalary();
+        salarySum += salary;
+        minSalary = Math.min(minSalary, salary);
+        maxSalary = Math.max(maxSalary, salary);
+
+        divisionCounts.merge(person.getDivision().getName(), 1L, Long::sum);
+    }
+
+    /**
+     * Добавляет к статистике частичную статистику другой части данных.
+     * Подразделения объединяются по названию.
+     *
+     * @param other частичная статистика
+     */
+    public void merge(RosterStatistics other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Статистика не может быть null");
+        }
+        if (other == this) {
+            throw new IllegalArgumentException("Нельзя объединить статистику саму с собой");
+        }
+
+        long otherCount;
+        long otherMale;
+        long otherFemale;
+        double otherSum;
+        double otherMin;
+        double otherMax;
+        Map<String, Long> otherDivisions;
+        synchronized (other) {
+            otherCount = other.count;
+            otherMale = other.maleCount;
+            otherFemale = other.femaleCount;
+            otherSum = other.salarySum;
+            otherMin = other.minSalary;
+            otherMax = other.maxSalary;
+            otherDivisions = new LinkedHashMap<>(other.divisionCounts);
+        }
+
+        synchronized (this) {
+            count += otherCount;
+            maleCount += otherMale;
+            femaleCount += otherFemale;
+            salarySum += otherSum;
+            minSalary = Math.min(minSalary, otherMin);
+            maxSalary = Math.max(maxSalary, otherMax);
+            otherDivisions.forEach((name, value) -> divisionCounts.merge(name, value, Long::sum));
+        }
+    }
+
+    /**
+     * Записывает статистику в двоичном виде: счетчики, зарплаты и словарь подразделений.
+     *
+     * @param out поток вывода
+     * @throws IOException если произошла ошибка записи
+     */
+    public synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeLong(maleCount);
+        out.writeLong(femaleCount);
+        out.writeDouble(salarySum);
+        out.writeDouble(minSalary);
+        out.writeDouble(maxSalary);
+        out.writeInt(divisionCounts.size());
+        for (Map.Entry<String, Long> entry : divisionCounts.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    /**
+     * Читает статистику, записанную методом {@link #writeTo(DataOutput)}.
+     *
+     * @param in поток ввода
+     * @return прочитанная статистика
+     * @throws IOException если произошла ошибка чтения
+     */
+    public static RosterStatistics readFrom(DataInput in) throws IOException {
+        RosterStatistics statistics = new RosterStatistics();
+        statistics.count = in.readLong();
+        statistics.maleCount = in.readLong();
+        statistics.femaleCount = in.readLong();
+        statistics.salarySum = in.readDouble();
+        statistics.minSalary = in.readDouble();
+        statistics.maxSalary = in.readDouble();
+        int divisions = in.readInt();
+        for (int i = 0; i < divisions; i++) {
+            statistics.divisionCounts.put(in.readUTF(), in.readLong());
+        }
+        return statistics;
+    }
+
+    // Геттеры
+    public synchronized long getCount() { return count; }
+    public synchronized long getMaleCount() { return maleCount; }
+    public synchronized long getFemaleCount() { return femaleCount; }
+    public synchronized double getSalarySum() { return salarySum; }
+
+    /**
+     * Возвращает среднюю зарплату.
+     *
+     * @return средняя зарплата или 0, если сотрудников нет
+     */
+    public synchronized double getAverageSalary() {
+        return count == 0 ? 0.0 : salarySum / count;
+    }
+
+    /**
+     * Возвращает минимальную зарплату.
+     *
+     * @return минимальная зарплата или 0, если сотрудников нет
+     */
+    public synchronized double getMinSalary() {
+        return count == 0 ? 0.0 : minSalary;
+    }
+
+    /**
+     * Возвращает максимальную зарплату.
+     *
+     * @return максимальная зарплата или 0, если сотрудников нет
+     */
+    public synchronized double getMaxSalary() {
+        return count == 0 ? 0.0 : maxSalary;
+    }
+
+    /**
+     * Возвращает количество сотрудников по подразделениям.
+     *
+     * @return копия таблицы "название подразделения -> количество"
+     */
+    public synchronized Map<String, Long> getDivisionCounts() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(divisionCounts));
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                "RosterStatistics{count=%d, male=%d, female=%d, avgSalary=%.2f, divisions=%d}",
+                count, maleCount, femaleCount, getAverageSalary(), divisionCounts.size()
+        );
+    }
+}
@@ -0,0 +1,260 @@
+package lab4.store;
+
+import lab4.model.Division;
+import lab4.model.Person;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище сотрудников вне кучи JVM.
+ * <p>
+ * Записи фиксированной длины лежат в блоках прямой памяти ({@link ByteBuffer#allocateDirect}),
+ * имена хранятся в UTF-8 в отдельной строковой области из таких же блоков. Поэтому при миллионах
+ * сотрудников в куче не остается объектов {@link Person}, {@link LocalDate}, {@link Long} и {@link Double},
+ * и сборщик мусора их не обходит. Блоки добавляются по мере роста без копирования уже записанных данных.
+ * <p>
+ * Справочник подразделений остается в куче: его размер определяется числом различных подразделений,
+ * а не сотрудников. В записи хранится только индекс подразделения.
+ * <p>
+ * Объем прямой памяти ограничен флагом JVM {@code -XX:MaxDirectMemorySize}, который по умолчанию
+ * равен максимальному размеру кучи ({@code -Xmx}). Хранилище занимает около 40 байт на запись
+ * плюс длина имени в UTF-8, память выделяется блоками по 2,5 МБ (записи) и 1 МБ (имена).
+ * Например, для 10 млн сотрудников нужно порядка 600 МБ: {@code -XX:MaxDirectMemorySize=1g}.
+ * При нехватке {@link #add} выбрасывает {@code OutOfMemoryError: Direct buffer memory}.
+ * <p>
+ * {@link #close()} освобождает ссылки на блоки; прямая память возвращается, когда сборщик мусора
+ * соберет буферы. После закрытия любое обращение к хранилищу выбрасывает {@link IllegalStateException}.
+ * <p>
+ * Заполнение не потокобезопасно; после заполнения чтение из нескольких потоков допустимо.
+ */
+public class OffHeapPersonStore implements Consumer<Person>, AutoCloseable {
+    // Раскладка записи
+    private static final int ID_OFFSET = 0;
+    private static final int SALARY_OFFSET = 8;
+    private static final int NAME_REF_OFFSET = 16;
+    private static final int BIRTH_DATE_OFFSET = 24;
+    private static final int DIVISION_OFFSET = 28;
+    private static final int NAME_LENGTH_OFFSET = 32;
+    private static final int GENDER_OFFSET = 36;
+    private static final int RECORD_SIZE = 40;
+
+    private static final int RECORDS_PER_BLOCK = 1 << 16;
+    private static final int STRING_BLOCK_SIZE = 1 << 20;
+
+    private static final Person.Gender[] GENDERS = Person.Gender.values();
+
+    private final List<ByteBuffer> recordBlocks = new ArrayList<>();
+    private final List<ByteBuffer> stringBlocks = new ArrayList<>();
+    private final Map<Division, Integer> divisionIndex = new HashMap<>();
+    private final List<Division> divisions = new ArrayList<>();
+    private int size;
+    private volatile boolean closed;
+
+    /**
+     * Добавляет сотрудника в хранилище.
+     *
+     * @param person сотрудник
+     */
+    @Override
+    public void accept(Person person) {
+        add(person);
+    }
+
+    /**
+     * Добавляет сотрудника в хранилище.
+     *
+     * @param person сотрудник
+     * @return индекс добавленной записи
+     * @throws IllegalArgumentException если сотрудник null
+     * @throws IllegalStateException если хранилище переполнено или закрыто
+     */
+    public int add(Person person) {
+        if (person == null) {
+            throw new IllegalArgumentException("Сотрудник не может быть null");
+        }
+        return add(person.getId(), person.getName(), person.getGender(),
+                (int) person.getBirthDate().toEpochDay(), person.getDivision(), person.getSalary());
+    }
+
+    /**
+     * Добавляет сотрудника по значениям полей, без промежуточного объекта Person.
+     * Значения должны быть уже проверены (как в конструкторе {@link Person}).
+     *
+     * @param id идентификатор
+     * @param name имя
+     * @param gender пол
+     * @param birthEpochDay дата рождения в днях от 1970-01-01
+     * @param division подразделение
+     * @param salary зарплата
+     * @return индекс добавленной записи
+     * @throws IllegalArgumentException если имя, пол или подразделение null
+     * @throws IllegalStateException если хранилище переполнено или закрыто
+     */
+    public int add(long id, String name, Person.Gender gender, int birthEpochDay,
+                   Division division, double salary) {
+        if (name == null || gender == null || division == null) {
+            throw new IllegalArgumentException("Имя, пол и подразделение не могут быть null");
+        }
+        ensureOpen();
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Хранилище переполнено");
+        }
+
+        int index = size;
+        if (index % RECORDS_PER_BLOCK == 0) {
+            recordBlocks.add(ByteBuffer.allocateDirect(RECORDS_PER_BLOCK * RECORD_SIZE));
+        }
+
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        long nameRef = writeString(nameBytes);
+
+        ByteBuffer block = recordBlocks.get(index / RECORDS_PER_BLOCK);
+        int base = (index % RECORDS_PER_BLOCK) * RECORD_SIZE;
+        block.putLong(base + ID_OFFSET, id);
+        block.putDouble(base + SALARY_OFFSET, salary);
+        block.putLong(base + NAME_REF_OFFSET, nameRef);
+        block.putInt(base + BIRTH_DATE_OFFSET, birthEpochDay);
+        block.putInt(base + DIVISION_OFFSET, divisionOrdinal(division));
+        block.putInt(base + NAME_LENGTH_OFFSET, nameBytes.length);
+        block.put(base + GENDER_OFFSET, (byte) gender.ordinal());
+
+        size++;
+        return index;
+    }
+
+    /**
+     * Возвращает количество записей.
+     *
+     * @return количество сотрудников
+     */
+    public int size() {
+        ensureOpen();
+        return size;
+    }
+
+    public long getId(int index) {
+        return record(index).getLong(base(index) + ID_OFFSET);
+    }
+
+    public double getSalary(int index) {
+        return record(index).getDouble(base(index) + SALARY_OFFSET);
+    }
+
+    public Person.Gender getGender(int index) {
+        return GENDERS[record(index).get(base(index) + GENDER_OFFSET)];
+    }
+
+    public LocalDate getBirthDate(int index) {
+        return LocalDate.ofEpochDay(record(index).getInt(base(index) + BIRTH_DATE_OFFSET));
+    }
+
+    public Division getDivision(int index) {
+        return divisions.get(record(index).getInt(base(index) + DIVISION_OFFSET));
+    }
+
+    /**
+     * Читает имя сотрудника из строковой области.
+     *
+     * @param index индекс записи
+     * @return имя сотрудника
+     */
+    public String getName(int index) {
+        ByteBuffer block = record(index);
+        int base = base(index);
+        long nameRef = block.getLong(base + NAME_REF_OFFSET);
+        int length = block.getInt(base + NAME_LENGTH_OFFSET);
+
+        // Копия буфера: позиция общего блока не меняется, чтение из нескольких потоков безопасно
+        ByteBuffer strings = stringBlocks.get((int) (nameRef >>> 32)).duplicate();
+        strings.position((int) nameRef);
+        byte[] bytes = new byte[length];
+        strings.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Создает объект Person по записи хранилища.
+     * Объект не хранится и после использования может быть собран сборщиком мусора.
+     *
+     * @param index индекс записи
+     * @return сотрудник
+     */
+    public Person toPerson(int index) {
+        return new Person(getId(index), getName(index), getGender(index),
+                getBirthDate(index), getDivision(index), getSalary(index));
+    }
+
+    /**
+     * Возвращает количество различных подразделений.
+     *
+     * @return количество подразделений
+     */
+    public int getDivisionCount() {
+        ensureOpen();
+        return divisions.size();
+    }
+
+    /**
+     * Закрывает хранилище и освобождает ссылки на блоки прямой памяти. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        recordBlocks.clear();
+        stringBlocks.clear();
+        divisionIndex.clear();
+        divisions.clear();
+        size = 0;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Хранилище закрыто");
+        }
+    }
+
+    private ByteBuffer record(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Индекс " + index + " вне диапазона [0, " + size + ")");
+        }
+        return recordBlocks.get(index / RECORDS_PER_BLOCK);
+    }
+
+    private static int base(int index) {
+        return (index % RECORDS_PER_BLOCK) * RECORD_SIZE;
+    }
+
+    /**
+     * Записывает строку в строковую область и возвращает ссылку: номер блока в старших 32 битах,
+     * смещение в блоке - в младших. Строка никогда не пересекает границу блока.
+     */
+    private long writeString(byte[] bytes) {
+        ByteBuffer block = stringBlocks.isEmpty() ? null : stringBlocks.get(stringBlocks.size() - 1);
+        if (block == null || block.remaining() < bytes.length) {
+            block = ByteBuffer.allocateDirect(Math.max(STRING_BLOCK_SIZE, bytes.length));
+            stringBlocks.add(block);
+        }
+        long ref = ((long) (stringBlocks.size() - 1) << 32) | block.position();
+        block.put(bytes);
+        return ref;
+    }
+
+    private int divisionOrdinal(Division division) {
+        Integer existing = divisionIndex.get(division);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = divisions.size();
+        divisionIndex.put(division, ordinal);
+        divisions.add(division);
+        return ordinal;
+    }
+}
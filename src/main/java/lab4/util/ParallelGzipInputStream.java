@@ -0,0 +1,523 @@
+package lab4.util;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Поток распаковки gzip файла с параллельной распаковкой файлов из нескольких членов
+ * (multi-member gzip, например от bgzip или при склейке нескольких .gz файлов).
+ * <p>
+ * Файл читается позиционно через {@link FileChannel}, поэтому размер файла не ограничен.
+ * Возможные начала членов ищутся по сигнатуре заголовка gzip лениво, небольшими порциями впереди
+ * читателя. Текущий член читатель сразу распаковывает потоково сам, а кандидаты после него
+ * распаковываются заранее в фоновых потоках, так что распаковка идет одновременно с парсингом.
+ * Поэтому обычный одночленный gzip читается так же, как {@link java.util.zip.GZIPInputStream},
+ * без лишней работы. На одном процессоре {@link #open(File)} не распаковывает впрок. Результат кандидата
+ * используется, только если он начинается ровно там, где закончился предыдущий член; CRC32 и длина
+ * каждого члена сверяются с трейлером, ложные кандидаты отбрасываются.
+ * <p>
+ * Член распаковывается впрок целиком, только если его несжатый размер не превышает лимита
+ * ({@link #DEFAULT_MAX_MEMBER_BYTES} по умолчанию); более крупные члены распаковываются
+ * потоково в потоке читателя, когда до них дойдет очередь. Поэтому одновременно в памяти
+ * находится не больше {@code window} членов по {@code maxMemberBytes} байт.
+ * <p>
+ * Как и {@link java.util.zip.GZIPInputStream}, поток игнорирует данные после последнего члена,
+ * если они не похожи на заголовок gzip. Член с корректным заголовком, но поврежденными или
+ * обрезанными данными, вызывает {@link IOException}.
+ */
+public class ParallelGzipInputStream extends InputStream {
+    /**
+     * Лимит несжатого размера члена, распаковываемого впрок.
+     */
+    public static final int DEFAULT_MAX_MEMBER_BYTES = 16 * 1024 * 1024;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+    private static final int DEFLATE = 8;
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+    private static final int RESERVED_FLAGS = 0xe0;
+    private static final int SIGNATURE_SIZE = 4;
+    private static final int READ_CHUNK = 64 * 1024;
+    private static final int SCAN_CHUNK = 1024 * 1024;
+    private static final int INITIAL_OUTPUT_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final Executor executor;
+    private final int window;
+    private final int maxMemberBytes;
+    private final Deque<Long> pendingCandidates = new ArrayDeque<>();
+    private final Deque<Speculation> inFlight = new ArrayDeque<>();
+
+    private long scanPosition;
+    private long speculationFloor;
+    private long nextMemberStart;
+    private byte[] current = new byte[0];
+    private int currentPosition;
+    private MemberDecoder streaming;
+    private boolean finished;
+    private boolean closed;
+
+    private ParallelGzipInputStream(FileChannel channel, Executor executor, int window, int maxMemberBytes)
+            throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.executor = executor;
+        this.window = window;
+        this.maxMemberBytes = maxMemberBytes;
+        if (!hasMemberHeader(channel, 0)) {
+            throw new ZipException("Файл не в формате gzip");
+        }
+        // Текущий член всегда распаковывается сразу в потоке читателя, впрок - только следующие
+        startStreaming();
+        fillWindow();
+    }
+
+    /**
+     * Открывает gzip файл для чтения с распаковкой в общем пуле ForkJoin.
+     *
+     * @param file gzip файл
+     * @return поток распакованных данных
+     * @throws IOException если файл не читается или не в формате gzip
+     */
+    public static InputStream open(File file) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        // На одном процессоре распаковка впрок только отнимает время у читателя
+        int window = Runtime.getRuntime().availableProcessors() < 2 ? 0 : Math.max(2, pool.getParallelism() * 2);
+        return open(file, pool, window, DEFAULT_MAX_MEMBER_BYTES);
+    }
+
+    /**
+     * Открывает gzip файл для чтения с лимитом члена по умолчанию.
+     *
+     * @param file gzip файл
+     * @param executor исполнитель для распаковки членов
+     * @param window максимальное количество членов, распаковываемых впрок (0 - без распаковки впрок)
+     * @return поток распакованных данных
+     * @throws IOException если файл не читается или не в формате gzip
+     */
+    public static InputStream open(File file, Executor executor, int window) throws IOException {
+        return open(file, executor, window, DEFAULT_MAX_MEMBER_BYTES);
+    }
+
+    /**
+     * Открывает gzip файл для чтения.
+     *
+     * @param file gzip файл
+     * @param executor исполнитель для распаковки членов
+     * @param window максимальное количество членов, распаковываемых впрок (0 - без распаковки впрок)
+     * @param maxMemberBytes максимальный несжатый размер члена, распаковываемого впрок
+     * @return поток распакованных данных
+     * @throws IOException если файл не читается или не в формате gzip
+     */
+    public static InputStream open(File file, Executor executor, int window, int maxMemberBytes)
+            throws IOException {
+        if (window < 0) {
+            throw new IllegalArgumentException("Размер окна не может быть отрицательным");
+        }
+        if (maxMemberBytes <= 0 || maxMemberBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Неверный лимит размера члена: " + maxMemberBytes);
+        }
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            return new ParallelGzipInputStream(channel, executor, window, maxMemberBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int read = read(one, 0, 1);
+        return read < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Поток закрыт");
+        }
+        if (length == 0) {
+            return 0;
+        }
+        while (true) {
+            if (streaming != null) {
+                int read = streaming.read(buffer, offset, length);
+                if (read >= 0) {
+                    return read;
+                }
+                nextMemberStart = streaming.end;
+                streaming = null;
+            } else if (currentPosition < current.length) {
+                int count = Math.min(length, current.length - currentPosition);
+                System.arraycopy(current, currentPosition, buffer, offset, count);
+                currentPosition += count;
+                return count;
+            }
+            if (finished || !nextMember()) {
+                finished = true;
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    public int available() {
+        return streaming != null ? 0 : current.length - currentPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Speculation speculation : inFlight) {
+            speculation.result.cancel(false);
+        }
+        inFlight.clear();
+        pendingCandidates.clear();
+        channel.close();
+    }
+
+    /**
+     * Переходит к следующему члену: берет заранее распакованный результат
+     * или распаковывает член потоково.
+     *
+     * @return false если данных больше нет
+     */
+    private boolean nextMember() throws IOException {
+        if (nextMemberStart >= size) {
+            return false;
+        }
+        if (!hasMemberHeader(channel, nextMemberStart)) {
+            // Мусор после последнего члена игнорируется, как в GZIPInputStream
+            return false;
+        }
+
+        // Кандидаты до начала следующего члена оказались внутри сжатых данных
+        while (!inFlight.isEmpty() && inFlight.peekFirst().start < nextMemberStart) {
+            inFlight.pollFirst().result.cancel(false);
+        }
+
+        Member member = null;
+        if (!inFlight.isEmpty() && inFlight.peekFirst().start == nextMemberStart) {
+            try {
+                member = inFlight.pollFirst().result.join();
+            } catch (CompletionException | CancellationException e) {
+                // Повторная потоковая распаковка сообщит об ошибке в точке повреждения
+                member = null;
+            }
+        }
+
+        if (member != null && member.content != null) {
+            current = member.content;
+            currentPosition = 0;
+            nextMemberStart = member.end;
+            speculationFloor = nextMemberStart;
+        } else {
+            // Кандидата не было, член больше лимита или распаковка не удалась
+            startStreaming();
+        }
+        fillWindow();
+        return true;
+    }
+
+    /**
+     * Начинает потоковую распаковку члена с позиции nextMemberStart в потоке читателя.
+     */
+    private void startStreaming() throws IOException {
+        current = new byte[0];
+        currentPosition = 0;
+        streaming = new MemberDecoder(channel, nextMemberStart);
+        // Этот член уже распаковывается - впрок только кандидаты после его начала
+        speculationFloor = nextMemberStart + 1;
+    }
+
+    /**
+     * Запускает распаковку следующих кандидатов, пока окно не заполнено.
+     * За один вызов просматривается не больше {@code window} порций файла.
+     */
+    private void fillWindow() throws IOException {
+        int scannedChunks = 0;
+        while (inFlight.size() < window) {
+            if (pendingCandidates.isEmpty()) {
+                if (scanPosition >= size || scannedChunks >= window) {
+                    return;
+                }
+                scanChunk();
+                scannedChunks++;
+                continue;
+            }
+            long start = pendingCandidates.pollFirst();
+            if (start < speculationFloor) {
+                continue;
+            }
+            CompletableFuture<Member> result = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return inflateMember(channel, start, maxMemberBytes);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            inFlight.addLast(new Speculation(start, result));
+        }
+    }
+
+    /**
+     * Ищет сигнатуры заголовка gzip в очередной порции файла.
+     */
+    private void scanChunk() throws IOException {
+        scanPosition = Math.max(scanPosition, nextMemberStart);
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_CHUNK + SIGNATURE_SIZE - 1);
+        int read = readFully(channel, buffer, scanPosition);
+        byte[] bytes = buffer.array();
+        for (int i = 0; i + SIGNATURE_SIZE <= read; i++) {
+            if (isSignature(bytes, i)) {
+                pendingCandidates.addLast(scanPosition + i);
+            }
+        }
+        scanPosition += Math.max(1, Math.min(read, SCAN_CHUNK));
+    }
+
+    /**
+     * Распаковывает член целиком в память.
+     *
+     * @return член с содержимым или член без содержимого, если он больше лимита
+     */
+    static Member inflateMember(FileChannel channel, long start, int maxMemberBytes) throws IOException {
+        try (MemberDecoder decoder = new MemberDecoder(channel, start)) {
+            byte[] out = new byte[Math.min(INITIAL_OUTPUT_SIZE, maxMemberBytes)];
+            int length = 0;
+            while (true) {
+                if (length == out.length) {
+                    if (length == maxMemberBytes) {
+                        return new Member(null, -1);
+                    }
+                    out = Arrays.copyOf(out, (int) Math.min((long) out.length * 2, maxMemberBytes));
+                }
+                int read = decoder.read(out, length, out.length - length);
+                if (read < 0) {
+                    return new Member(length == out.length ? out : Arrays.copyOf(out, length), decoder.end);
+                }
+                length += read;
+            }
+        }
+    }
+
+    /**
+     * Проверяет, начинается ли с позиции заголовок члена gzip.
+     */
+    static boolean hasMemberHeader(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIGNATURE_SIZE);
+        return readFully(channel, buffer, position) == SIGNATURE_SIZE && isSignature(buffer.array(), 0);
+    }
+
+    private static boolean isSignature(byte[] bytes, int i) {
+        return (bytes[i] & 0xff) == GZIP_MAGIC_1
+                && (bytes[i + 1] & 0xff) == GZIP_MAGIC_2
+                && bytes[i + 2] == DEFLATE
+                && (bytes[i + 3] & RESERVED_FLAGS) == 0;
+    }
+
+    /**
+     * Читает в буфер с позиции, пока буфер не заполнен или не достигнут конец файла.
+     *
+     * @return количество прочитанных байтов
+     */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Потоковая распаковка одного члена gzip с проверкой трейлера.
+     */
+    private static final class MemberDecoder implements AutoCloseable {
+        private final FileChannel channel;
+        private final Inflater inflater = new Inflater(true);
+        private final CRC32 crc = new CRC32();
+        private final ByteBuffer input = ByteBuffer.allocate(READ_CHUNK);
+        private long inputPosition;
+        private long outputLength;
+        private long end = -1;
+
+        private MemberDecoder(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            this.inputPosition = start;
+            try {
+                readHeader(start);
+            } catch (IOException | RuntimeException e) {
+                inflater.end();
+                throw e;
+            }
+        }
+
+        /**
+         * Распаковывает данные члена.
+         *
+         * @return количество байтов или -1, если член закончился и трейлер проверен
+         */
+        private int read(byte[] buffer, int offset, int length) throws IOException {
+            if (end >= 0) {
+                return -1;
+            }
+            try {
+                while (true) {
+                    int inflated = inflater.inflate(buffer, offset, length);
+                    if (inflated > 0) {
+                        crc.update(buffer, offset, inflated);
+                        outputLength += inflated;
+                        return inflated;
+                    }
+                    if (inflater.finished()) {
+                        verifyTrailer();
+                        return -1;
+                    }
+                    if (inflater.needsDictionary()) {
+                        throw new ZipException("Член gzip требует словарь");
+                    }
+                    if (inflater.needsInput()) {
+                        feed();
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("Поврежденные данные gzip: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            inflater.end();
+        }
+
+        private void feed() throws IOException {
+            input.clear();
+            int read = readFully(channel, input, inputPosition);
+            if (read <= 0) {
+                throw new EOFException("Неожиданный конец файла gzip");
+            }
+            inputPosition += read;
+            inflater.setInput(input.array(), 0, read);
+        }
+
+        private void readHeader(long start) throws IOException {
+            byte[] fixed = readBytes(start, 10);
+            if ((fixed[0] & 0xff) != GZIP_MAGIC_1 || (fixed[1] & 0xff) != GZIP_MAGIC_2 || fixed[2] != DEFLATE) {
+                throw new ZipException("Неверный заголовок gzip в позиции " + start);
+            }
+            int flags = fixed[3] & 0xff;
+            long position = start + 10;
+            if ((flags & FEXTRA) != 0) {
+                byte[] extraLength = readBytes(position, 2);
+                position += 2 + ((extraLength[0] & 0xff) | (extraLength[1] & 0xff) << 8);
+            }
+            if ((flags & FNAME) != 0) {
+                position = skipZeroTerminated(position);
+            }
+            if ((flags & FCOMMENT) != 0) {
+                position = skipZeroTerminated(position);
+            }
+            if ((flags & FHCRC) != 0) {
+                position += 2;
+            }
+            inputPosition = position;
+        }
+
+        private void verifyTrailer() throws IOException {
+            long trailer = inputPosition - inflater.getRemaining();
+            byte[] bytes = readBytes(trailer, 8);
+            long expectedCrc = littleEndianInt(bytes, 0);
+            long expectedSize = littleEndianInt(bytes, 4);
+            if (expectedCrc != crc.getValue()) {
+                throw new ZipException("Неверная контрольная сумма gzip");
+            }
+            if (expectedSize != (outputLength & 0xffffffffL)) {
+                throw new ZipException("Неверный размер члена gzip");
+            }
+            end = trailer + 8;
+        }
+
+        private long skipZeroTerminated(long position) throws IOException {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            while (true) {
+                one.clear();
+                if (readFully(channel, one, position++) < 1) {
+                    throw new EOFException("Обрезанный заголовок gzip");
+                }
+                if (one.get(0) == 0) {
+                    return position;
+                }
+            }
+        }
+
+        private byte[] readBytes(long position, int count) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(count);
+            if (readFully(channel, buffer, position) < count) {
+                throw new EOFException("Неожиданный конец файла gzip");
+            }
+            return buffer.array();
+        }
+
+        private static long littleEndianInt(byte[] bytes, int offset) {
+            return (bytes[offset] & 0xffL) | (bytes[offset + 1] & 0xffL) << 8
+                    | (bytes[offset + 2] & 0xffL) << 16 | (bytes[offset + 3] & 0xffL) << 24;
+        }
+    }
+
+    /**
+     * Распакованный член и позиция сразу после его трейлера.
+     * Содержимое null означает, что член больше лимита и должен распаковываться потоково.
+     */
+    static final class Member {
+        final byte[] content;
+        final long end;
+
+        Member(byte[] content, long end) {
+            this.content = content;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Распаковка кандидата, запущенная впрок.
+     */
+    private static final class Speculation {
+        private final long start;
+        private final CompletableFuture<Member> result;
+
+        private Speculation(long start, CompletableFuture<Member> result) {
+            this.start = start;
+            this.result = result;
+        }
+    }
+}
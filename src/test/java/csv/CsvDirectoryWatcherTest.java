@@ -0,0 +1,111 @@
+package csv;
+
+import lab4.csv.CsvDirectoryWatcher;
+import lab4.csv.CsvParser;
+import lab4.stats.RosterStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Тесты для класса CsvDirectoryWatcher.
+ */
+class CsvDirectoryWatcherTest {
+
+    private RosterStatistics statistics;
+    private CsvDirectoryWatcher watcher;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        CsvParser.clearDivisionCache();
+        statistics = new RosterStatistics();
+        watcher = new CsvDirectoryWatcher(tempDir, statistics);
+    }
+
+    @Test
+    void testPicksUpNewFilesAndAppendedLines() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        Files.write(file, ("id;name;gender;birthDate;division;salary\n" +
+                "1;John;Male;15.05.1970;IT;5000\n").getBytes());
+
+        assertEquals(1, watcher.pollOnce());
+        assertEquals(1, statistics.getCount());
+
+        // Дописываем строку - парсится только новая запись
+        Files.write(file, "2;Jane;Female;07.02.1983;HR;6000\n".getBytes(), StandardOpenOption.APPEND);
+        assertEquals(1, watcher.pollOnce());
+        assertEquals(2, statistics.getCount());
+        assertEquals(Files.size(file), watcher.getOffset(file));
+
+        // Новый файл в каталоге
+        Files.write(tempDir.resolve("second.csv"), ("id;name;gender;birthDate;division;salary\n" +
+                "3;Bob;Male;10.10.1990;IT;7000\n").getBytes());
+        assertEquals(1, watcher.pollOnce());
+        assertEquals(3, statistics.getCount());
+        assertEquals(2L, statistics.getDivisionCounts().get("IT"));
+    }
+
+    @Test
+    void testIncompleteLineWaitsForNewline() throws IOException {
+        Path file = tempDir.resolve("partial.csv");
+        Files.write(file, ("id;name;gender;birthDate;division;salary\n" +
+                "1;John;Male;15.05.19").getBytes());
+
+        assertEquals(0, watcher.pollOnce());
+
+        Files.write(file, "70;IT;5000\n".getBytes(), StandardOpenOption.APPEND);
+        assertEquals(1, watcher.pollOnce());
+        assertEquals(5000.0, statistics.getSalarySum(), 0.001);
+    }
+
+    @Test
+    void testIgnoresNonCsvFiles() throws IOException {
+        Files.write(tempDir.resolve("notes.txt"), "1;John;Male;15.05.1970;IT;5000\n".getBytes());
+
+        assertEquals(0, watcher.pollOnce());
+        assertEquals(0, statistics.getCount());
+    }
+
+    @Test
+    void testReplacedAndDeletedFiles() throws IOException {
+        Path file = tempDir.resolve("export.csv");
+        Files.write(file, ("id;name;gender;birthDate;division;salary\n" +
+                "1;John;Male;15.05.1970;IT;5000\n").getBytes());
+        assertEquals(1, watcher.pollOnce());
+
+        // Замена файла целиком более длинным содержимым: смещение старого файла не применяется
+        Path replacement = tempDir.resolve("export.tmp");
+        Files.write(replacement, ("id;name;gender;birthDate;division;salary\n" +
+                "2;Jane;Female;07.02.1983;HR;6000\n" +
+                "3;Bob;Male;10.10.1990;IT;7000\n").getBytes());
+        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING);
+        assertEquals(2, watcher.pollOnce());
+        assertEquals(3, statistics.getCount());
+
+        Files.delete(file);
+        assertEquals(0, watcher.pollOnce());
+        assertEquals(0, watcher.getOffset(file));
+    }
+
+    @Test
+    void testFileWithIncompleteHeaderIsSkipped() throws IOException {
+        Path file = tempDir.resolve("broken.csv");
+        Files.write(file, ("id;name;gender;salary\n" +
+                "1;John;Male;15.05.1970;IT;5000\n").getBytes());
+        assertEquals(0, watcher.pollOnce());
+
+        Files.write(file, "2;Jane;Female;07.02.1983;HR;6000\n".getBytes(), StandardOpenOption.APPEND);
+        assertEquals(0, watcher.pollOnce());
+        assertEquals(0, statistics.getCount());
+    }
+}
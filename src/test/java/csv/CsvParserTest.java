@@ -214,6 +214,83 @@ class CsvParserTest {
         assertEquals(3, persons.size());
     }
 
+    @Test
+    void testHeaderDrivenColumnMapping() throws IOException, CsvValidationException {
+        // Колонки переставлены, названия - синонимы, есть лишняя колонка
+        String testCsv = "Department;Salary;Comment;Full Name;ID;Date of Birth;Sex\n" +
+                "IT;5000;new hire;John;1;15.05.1970;Male\n" +
+                "HR;6000;;Jane;2;07.02.1983;Female";
+
+        Path csvPath = tempDir.resolve("test_mapping.csv");
+        Files.write(csvPath, testCsv.getBytes());
+
+        List<Person> persons = csvParser.parseCsvFile(csvPath.toAbsolutePath().toString());
+
+        assertEquals(2, persons.size());
+        Person first = persons.get(0);
+        assertEquals(1L, first.getId());
+        assertEquals("John", first.getName());
+        assertEquals(Person.Gender.MALE, first.getGender());
+        assertEquals(LocalDate.of(1970, 5, 15), first.getBirthDate());
+        assertEquals("IT", first.getDivision().getName());
+        assertEquals(5000.0, first.getSalary(), 0.001);
+    }
+
+    @Test
+    void testHeaderWithMissingColumn() throws IOException {
+        String testCsv = "id;name;gender;birthDate;division\n" +
+                "1;John;Male;15.05.1970;IT";
+
+        Path csvPath = tempDir.resolve("test_missing_column.csv");
+        Files.write(csvPath, testCsv.getBytes());
+
+        assertThrows(CsvValidationException.class, () ->
+                csvParser.parseCsvFile(csvPath.toAbsolutePath().toString()));
+    }
+
+    @Test
+    void testPartlyRecognizedHeaderFallsBackToPositions() throws IOException, CsvValidationException {
+        Path csvPath = tempDir.resolve("other_exporter.csv");
+        Files.write(csvPath, ("ID;Имя;Пол;Дата;Отдел;Оклад\n" +
+                "1;John;Male;15.05.1970;IT;5000").getBytes());
+
+        List<Person> persons = csvParser.parseCsvFile(csvPath.toAbsolutePath().toString());
+        assertEquals(1, persons.size());
+        assertEquals(LocalDate.of(1970, 5, 15), persons.get(0).getBirthDate());
+
+        // Распознанные колонки не на своих позициях - позиционный порядок не применим
+        Files.write(csvPath, ("Имя;ID;Пол;Дата;Отдел;Оклад\n" +
+                "John;1;Male;15.05.1970;IT;5000").getBytes());
+        assertThrows(CsvValidationException.class, () ->
+                csvParser.parseCsvFile(csvPath.toAbsolutePath().toString()));
+    }
+
+    @Test
+    void testParseCompressedFiles() throws IOException, CsvValidationException {
+        byte[] content = ("id;name;gender;birthDate;division;salary\n" +
+                "1;John;Male;15.05.1970;IT;5000\n" +
+                "2;Jane;Female;07.02.1983;HR;6000").getBytes();
+
+        Path gzPath = tempDir.resolve("test.csv.gz");
+        try (OutputStream out = new java.util.zip.GZIPOutputStream(Files.newOutputStream(gzPath))) {
+            out.write(content);
+        }
+        Path zipPath = tempDir.resolve("test.zip");
+        try (java.util.zip.ZipOutputStream out = new java.util.zip.ZipOutputStream(Files.newOutputStream(zipPath))) {
+            out.putNextEntry(new java.util.zip.ZipEntry("test.csv"));
+            out.write(content);
+            out.closeEntry();
+        }
+
+        List<Person> fromGzip = csvParser.parseCsvFile(gzPath.toAbsolutePath().toString());
+        List<Person> fromZip = csvParser.parseCsvFile(zipPath.toAbsolutePath().toString());
+
+        assertEquals(2, fromGzip.size());
+        assertEquals("Jane", fromGzip.get(1).getName());
+        assertEquals(2, fromZip.size());
+        assertEquals("John", fromZip.get(0).getName());
+    }
+
     @Test
     void debugFileCreation() throws IOException {
         Path testPath = tempDir.resolve("debug_test.csv");
@@ -0,0 +1,133 @@
+package csv;
+
+import lab4.csv.CsvParser;
+import lab4.csv.CsvPublisher;
+import lab4.model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+/**
+ * Тесты для класса CsvPublisher.
+ */
+class CsvPublisherTest {
+
+    private Path csvPath;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        CsvParser.clearDivisionCache();
+        csvPath = tempDir.resolve("publisher.csv");
+        Files.write(csvPath, ("id;name;gender;birthDate;division;salary\n" +
+                "1;John;Male;15.05.1970;IT;5000\n" +
+                "2;Broken;Male;invalid;IT;5000\n" +
+                "3;Jane;Female;07.02.1983;HR;6000\n" +
+                "4;Bob;Male;10.10.1990;IT;7000").getBytes());
+    }
+
+    @Test
+    void testDeliversOnlyRequestedItems() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new CsvPublisher(csvPath.toString(), ';', Runnable::run).subscribe(subscriber);
+
+        assertTrue(subscriber.received.isEmpty(), "Без запроса записи не читаются");
+
+        subscriber.subscription.request(2);
+        assertEquals(2, subscriber.received.size());
+        assertEquals("Jane", subscriber.received.get(1).getName());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(10);
+        assertEquals(3, subscriber.received.size());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void testCancelStopsDelivery() {
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Person item) {
+                super.onNext(item);
+                subscription.cancel();
+            }
+        };
+        new CsvPublisher(csvPath.toString(), ';', Runnable::run).subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(1, subscriber.received.size());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void testThrowingSubscriberCancelsSubscription() {
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Person item) {
+                super.onNext(item);
+                throw new IllegalStateException("Сбой подписчика");
+            }
+        };
+        new CsvPublisher(csvPath.toString(), ';', Runnable::run).subscribe(subscriber);
+
+        assertDoesNotThrow(() -> subscriber.subscription.request(Long.MAX_VALUE));
+        subscriber.subscription.request(1);
+
+        assertEquals(1, subscriber.received.size());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void testErrorsAreSignalled() {
+        RecordingSubscriber missing = new RecordingSubscriber();
+        new CsvPublisher(tempDir.resolve("missing.csv").toString(), ';', Runnable::run).subscribe(missing);
+        missing.subscription.request(1);
+        assertTrue(missing.error instanceof FileNotFoundException);
+
+        RecordingSubscriber invalid = new RecordingSubscriber();
+        new CsvPublisher(csvPath.toString(), ';', Runnable::run).subscribe(invalid);
+        invalid.subscription.request(0);
+        assertTrue(invalid.error instanceof IllegalArgumentException);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Person> {
+        final List<Person> received = new ArrayList<>();
+        Flow.Subscription subscription;
+        boolean completed;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Person item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package csv;
+
+import lab4.csv.CsvParser;
+import lab4.csv.DivisionJoiner;
+import lab4.model.DivisionInfo;
+import lab4.model.EnrichedPerson;
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Тесты для класса DivisionJoiner.
+ */
+class DivisionJoinerTest {
+
+    private DivisionJoiner joiner;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        joiner = new DivisionJoiner();
+        CsvParser.clearDivisionCache();
+    }
+
+    @Test
+    void testJoinEnrichesEmployees() throws IOException, CsvValidationException {
+        Path employees = write("employees.csv", "id;name;gender;birthDate;division;salary\n" +
+                "1;John;Male;15.05.1970;IT;5000\n" +
+                "2;Jane;Female;07.02.1983;HR;6000\n" +
+                "3;Bob;Male;10.10.1990;Sales;7000");
+        Path divisions = write("divisions.csv", "division;costCenter;manager;region\n" +
+                "IT;CC-100;Smith;North\n" +
+                "HR;CC-200;Brown;South");
+
+        List<EnrichedPerson> result = new ArrayList<>();
+        long count = joiner.join(employees.toString(), divisions.toString(), result::add);
+
+        assertEquals(3, count);
+        assertEquals(3, result.size());
+        assertEquals("CC-100", result.get(0).getDivisionInfo().getCostCenter());
+        assertEquals("Brown", result.get(1).getDivisionInfo().getManager());
+        // Подразделения нет в справочнике - запись сохраняется без справочных данных
+        assertFalse(result.get(2).isMatched());
+        assertEquals("Bob", result.get(2).getPerson().getName());
+    }
+
+    @Test
+    void testLoadReferenceKeepsFirstDuplicateAndSkipsInvalid() throws IOException, CsvValidationException {
+        Path divisions = write("divisions.csv", "division;costCenter;manager;region\n" +
+                "IT;CC-100;Smith;North\n" +
+                "IT;CC-999;Other;West\n" +
+                "broken;line");
+
+        Map<String, DivisionInfo> reference = joiner.loadReference(divisions.toString(), ';');
+
+        assertEquals(1, reference.size());
+        assertEquals("CC-100", reference.get("IT").getCostCenter());
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.write(path, content.getBytes());
+        return path;
+    }
+}
@@ -0,0 +1,124 @@
+package csv;
+
+import lab4.csv.CsvParser;
+import lab4.csv.ParseResultCache;
+import lab4.model.Person;
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+/**
+ * Тесты для класса ParseResultCache.
+ */
+class ParseResultCacheTest {
+
+    private static final String HEADER = "id;name;gender;birthDate;division;salary\n";
+
+    private ParseResultCache cache;
+    private CsvParser parser;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        CsvParser.clearDivisionCache();
+        cache = new ParseResultCache(1024 * 1024);
+        parser = new CsvParser(cache);
+    }
+
+    @Test
+    void testRepeatedLoadReturnsSharedImmutableList() throws IOException, CsvValidationException {
+        Path csvPath = write("cached.csv", HEADER + "1;John;Male;15.05.1970;IT;5000");
+
+        List<Person> first = parser.parseCsvFile(csvPath.toString());
+        List<Person> second = parser.parseCsvFile(csvPath.toString());
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertThrows(UnsupportedOperationException.class, () -> first.remove(0));
+    }
+
+    @Test
+    void testChangedContentIsReparsed() throws IOException, CsvValidationException {
+        Path csvPath = write("changing.csv", HEADER + "1;John;Male;15.05.1970;IT;5000");
+        FileTime modified = Files.getLastModifiedTime(csvPath);
+        List<Person> first = parser.parseCsvFile(csvPath.toString());
+
+        // То же время изменения и размер, но другое содержимое - отличается хеш
+        write("changing.csv", HEADER + "1;Jane;Male;15.05.1970;IT;5000");
+        Files.setLastModifiedTime(csvPath, modified);
+        List<Person> second = parser.parseCsvFile(csvPath.toString());
+
+        assertNotSame(first, second);
+        assertEquals("Jane", second.get(0).getName());
+        assertEquals(2, cache.getMissCount());
+        // Старая версия файла заменена, а не оставлена до вытеснения
+        assertEquals(1, cache.size());
+        assertSame(second, parser.parseCsvFile(csvPath.toString()));
+    }
+
+    @Test
+    void testChangedTailOfLargeFileIsReparsed() throws IOException, CsvValidationException {
+        StringBuilder rows = new StringBuilder(HEADER);
+        for (int i = 0; i < 5000; i++) {
+            rows.append(i + 1).append(";Employee").append(i).append(";Male;15.05.1970;IT;5000\n");
+        }
+        Path csvPath = write("large.csv", rows + "9999;John;Male;15.05.1970;IT;5000");
+        FileTime modified = Files.getLastModifiedTime(csvPath);
+        parser.parseCsvFile(csvPath.toString());
+
+        // Последняя строка находится в хвостовом блоке отпечатка
+        write("large.csv", rows + "9999;Jane;Male;15.05.1970;IT;5000");
+        Files.setLastModifiedTime(csvPath, modified);
+        List<Person> second = parser.parseCsvFile(csvPath.toString());
+
+        assertEquals("Jane", second.get(second.size() - 1).getName());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testClasspathResourceIsCachedByUrl() throws IOException, CsvValidationException {
+        List<Person> first = parser.parseCsvFile("foreign_names.csv");
+        List<Person> second = parser.parseCsvFile("src/test/resources/foreign_names.csv");
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedByWeight() throws IOException, CsvValidationException {
+        ParseResultCache small = new ParseResultCache(400);
+        CsvParser smallParser = new CsvParser(small);
+        Path a = write("a.csv", HEADER + "1;John;Male;15.05.1970;IT;5000");
+        Path b = write("b.csv", HEADER + "2;Jane;Female;07.02.1983;HR;6000");
+        Path c = write("c.csv", HEADER + "3;Bob;Male;10.10.1990;IT;7000");
+
+        smallParser.parseCsvFile(a.toString());
+        smallParser.parseCsvFile(b.toString());
+        smallParser.parseCsvFile(a.toString()); // a становится недавно использованным
+        smallParser.parseCsvFile(c.toString()); // вытесняет b
+
+        assertEquals(1, small.getEvictionCount());
+        assertEquals(2, small.size());
+        smallParser.parseCsvFile(a.toString());
+        assertEquals(2, small.getHitCount());
+        assertTrue(small.getTotalWeight() <= 400);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.write(path, content.getBytes());
+        return path;
+    }
+}
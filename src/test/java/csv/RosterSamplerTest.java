@@ -0,0 +1,96 @@
+package csv;
+
+import lab4.csv.CsvParser;
+import lab4.csv.RosterSampler;
+import lab4.stats.RosterEstimate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Тесты для класса RosterSampler.
+ */
+class RosterSamplerTest {
+
+    private static final int ROWS = 20_000;
+
+    private Path csvPath;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        CsvParser.clearDivisionCache();
+        // 25% женщин, зарплата равномерно 1000..4999 (среднее 2999.5), IT:HR = 3:1
+        StringBuilder csv = new StringBuilder("id;name;gender;birthDate;division;salary\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(i + 1).append(";Employee").append(i).append(';')
+                    .append(i % 4 == 0 ? "Female" : "Male").append(";15.05.1980;")
+                    .append(i % 4 == 1 ? "HR" : "IT").append(';')
+                    .append(1000 + i % 4000).append('\n');
+        }
+        csvPath = tempDir.resolve("large.csv");
+        Files.write(csvPath, csv.toString().getBytes());
+    }
+
+    @Test
+    void testEstimatesCoverTrueValues() throws IOException {
+        RosterEstimate estimate = new RosterSampler(new Random(7)).sample(csvPath.toString(), 2000);
+
+        assertEquals(2000, estimate.getSampleSize());
+        assertTrue(estimate.getMaleShare().contains(0.75), estimate.getMaleShare().toString());
+        assertTrue(estimate.getSalaryMean().contains(2999.5), estimate.getSalaryMean().toString());
+        assertTrue(estimate.getDivisionShares().get("HR").contains(0.25));
+        assertEquals(ROWS, estimate.getCount().getEstimate(), ROWS * 0.05);
+        assertEquals(0.25, estimate.getFemaleShare().getEstimate(), 0.05);
+    }
+
+    @Test
+    void testCountIntervalCoversInvalidShare() throws IOException {
+        // Каждая пятая строка невалидна: интервал количества должен учитывать разброс доли валидных
+        StringBuilder csv = new StringBuilder("id;name;gender;birthDate;division;salary\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(i + 1).append(";Employee").append(i).append(';')
+                    .append(i % 5 == 0 ? "Unknown" : "Male").append(";15.05.1980;IT;1000\n");
+        }
+        Path mixed = tempDir.resolve("mixed.csv");
+        Files.write(mixed, csv.toString().getBytes());
+
+        RosterEstimate estimate = new RosterSampler(new Random(11)).sample(mixed.toString(), 500);
+
+        assertTrue(estimate.getCount().contains(ROWS * 0.8), estimate.getCount().toString());
+        assertTrue(estimate.getCount().getUpper() - estimate.getCount().getLower() > 0);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        RosterSampler sampler = new RosterSampler();
+        assertThrows(IllegalArgumentException.class, () -> sampler.sample(csvPath.toString(), 0));
+        assertThrows(FileNotFoundException.class, () ->
+                sampler.sample(tempDir.resolve("missing.csv").toString(), 10));
+    }
+
+    @Test
+    void testCompressedFileIsRejected() throws IOException {
+        Path gzipPath = tempDir.resolve("large.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipPath))) {
+            out.write(Files.readAllBytes(csvPath));
+        }
+
+        IOException e = assertThrows(IOException.class, () ->
+                new RosterSampler().sample(gzipPath.toString(), 10));
+        assertTrue(e.getMessage().contains("Сжатые файлы"));
+        assertThrows(IOException.class, () ->
+                new CsvParser().forEachPersonInRange(gzipPath.toString(), ';', 0, 100, p -> { }));
+    }
+}
@@ -0,0 +1,98 @@
+package index;
+
+import lab4.index.NameTrigramIndex;
+import lab4.model.Division;
+import lab4.model.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Тесты для класса NameTrigramIndex.
+ */
+class NameTrigramIndexTest {
+
+    private NameTrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Division it = new Division("IT");
+        Division hr = new Division("HR");
+        index = NameTrigramIndex.build(List.of(
+                person(1, "Alexander Smith", it),
+                person(2, "Alexandra Jones", hr),
+                person(3, "Sandra Alexeeva", it),
+                person(4, "Иван Александров", hr),
+                person(5, "Bob", it)
+        ));
+    }
+
+    @Test
+    void testSubstringSearch() {
+        assertEquals(List.of(1L, 2L), ids(index.findBySubstring("xand")));
+        assertEquals(List.of(2L, 3L), ids(index.findBySubstring("ANDRA")));
+        assertEquals(List.of(4L), ids(index.findBySubstring("александ")));
+        assertTrue(index.findBySubstring("zzz").isEmpty());
+    }
+
+    @Test
+    void testPrefixSearch() {
+        assertEquals(List.of(1L, 2L), ids(index.findByPrefix("alex")));
+        assertEquals(List.of(5L), ids(index.findByPrefix("b")));
+        assertEquals(List.of(3L), ids(index.findByPrefix("sandra a")));
+        assertTrue(index.findByPrefix("ander").isEmpty());
+    }
+
+    @Test
+    void testDivisionFilterAndShortQueries() {
+        assertEquals(List.of(1L, 3L), ids(index.findBySubstring("alex", "IT")));
+        assertEquals(List.of(2L), ids(index.findByPrefix("al", "HR")));
+        assertEquals(List.of(5L), ids(index.findBySubstring("ob")));
+    }
+
+    @Test
+    void testMatchesLinearScanOnLargerData() {
+        Division division = new Division("Ops");
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            persons.add(person(i + 1, "Name" + Integer.toString(i * 7919, 36), division));
+        }
+        NameTrigramIndex large = NameTrigramIndex.build(persons);
+
+        for (String query : new String[]{"ame1", "e2a", "zz", "name10"}) {
+            List<Person> expected = persons.stream()
+                    .filter(p -> p.getName().toLowerCase().contains(query))
+                    .collect(Collectors.toList());
+            assertEquals(expected, large.findBySubstring(query), "Запрос: " + query);
+        }
+    }
+
+    @Test
+    void testRareTrigramSkipsThroughLongPostings() {
+        Division division = new Division("Ops");
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            persons.add(person(i + 1, (i % 997 == 0 ? "CommonX" : "Common") + i, division));
+        }
+        NameTrigramIndex large = NameTrigramIndex.build(persons);
+
+        List<Person> expected = persons.stream()
+                .filter(p -> p.getName().startsWith("CommonX"))
+                .collect(Collectors.toList());
+        assertEquals(expected, large.findBySubstring("monx"));
+        assertEquals(expected, large.findByPrefix("commonx"));
+    }
+
+    private static Person person(long id, String name, Division division) {
+        return new Person(id, name, Person.Gender.MALE, LocalDate.of(1990, 1, 1), division, 1000.0);
+    }
+
+    private static List<Long> ids(List<Person> persons) {
+        return persons.stream().map(Person::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package query;
+
+import lab4.model.Division;
+import lab4.model.Person;
+import lab4.query.Aggregate;
+import lab4.query.EmployeeTable;
+import lab4.query.Filter;
+import lab4.query.GroupBy;
+import lab4.query.Query;
+import lab4.query.QueryResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Сравнение скомпилированного запроса с эквивалентным конвейером Stream.
+ * Запускается вручную (не входит в набор тестов):
+ * {@code java -cp target/classes:target/test-classes:<opencsv> query.QueryBenchmark [rows]}
+ */
+public class QueryBenchmark {
+    private static final int WARMUP = 5;
+    private static final int RUNS = 10;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        List<Person> persons = generate(rows);
+        EmployeeTable table = EmployeeTable.of(persons);
+
+        Query.Compiled compiled = Query.builder()
+                .where(Filter.gender(Person.Gender.FEMALE))
+                .where(Filter.salaryBetween(2000, 8000))
+                .groupBy(GroupBy.DIVISION)
+                .select(Aggregate.COUNT, Aggregate.AVG)
+                .build()
+                .compile(table);
+
+        System.out.printf("Строк: %d%n", rows);
+        measure("Stream", () -> streamQuery(persons, false));
+        measure("Stream (parallel)", () -> streamQuery(persons, true));
+        measure("Query.execute", compiled::execute);
+        measure("Query.executeParallel", compiled::executeParallel);
+    }
+
+    private static Object streamQuery(List<Person> persons, boolean parallel) {
+        return (parallel ? persons.parallelStream() : persons.stream())
+                .filter(p -> p.getGender() == Person.Gender.FEMALE)
+                .filter(p -> p.getSalary() >= 2000 && p.getSalary() <= 8000)
+                .collect(Collectors.groupingBy(p -> p.getDivision().getName(),
+                        Collectors.averagingDouble(Person::getSalary)));
+    }
+
+    private static void measure(String name, java.util.function.Supplier<Object> body) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = body.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            sink = body.get();
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / RUNS;
+        System.out.printf("%-24s %8.2f мс/запрос (%d)%n", name, millis,
+                sink instanceof Map ? ((Map<?, ?>) sink).size() : ((QueryResult) sink).getGroups().size());
+    }
+
+    private static List<Person> generate(int rows) {
+        Random random = new Random(42);
+        Division[] divisions = new Division[50];
+        for (int i = 0; i < divisions.length; i++) {
+            divisions[i] = new Division("D" + i);
+        }
+        List<Person> persons = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            persons.add(new Person(i + 1L, "P" + i,
+                    random.nextBoolean() ? Person.Gender.MALE : Person.Gender.FEMALE,
+                    LocalDate.ofEpochDay(random.nextInt(15_000)),
+                    divisions[random.nextInt(divisions.length)],
+                    1000.0 + random.nextInt(10_000)));
+        }
+        return persons;
+    }
+}
@@ -0,0 +1,100 @@
+package query;
+
+import lab4.model.Division;
+import lab4.model.Person;
+import lab4.query.Aggregate;
+import lab4.query.EmployeeTable;
+import lab4.query.Filter;
+import lab4.query.GroupBy;
+import lab4.query.Query;
+import lab4.query.QueryResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Тесты для движка запросов.
+ */
+class QueryTest {
+
+    private List<Person> persons;
+    private EmployeeTable table;
+
+    @BeforeEach
+    void setUp() {
+        Division[] divisions = {new Division("IT"), new Division("HR"), new Division("Sales")};
+        persons = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            persons.add(new Person(i + 1L, "P" + i,
+                    i % 3 == 0 ? Person.Gender.FEMALE : Person.Gender.MALE,
+                    LocalDate.of(1960 + i % 40, 1 + i % 12, 1),
+                    divisions[i % divisions.length], 1000.0 + i % 5000));
+        }
+        table = EmployeeTable.of(persons);
+    }
+
+    @Test
+    void testGroupByDivisionMatchesStreams() {
+        Query query = Query.builder()
+                .where(Filter.gender(Person.Gender.FEMALE))
+                .where(Filter.salaryBetween(2000, 4000))
+                .groupBy(GroupBy.DIVISION)
+                .select(Aggregate.COUNT, Aggregate.AVG, Aggregate.MAX)
+                .build();
+
+        Map<String, Double> expectedAvg = persons.stream()
+                .filter(p -> p.getGender() == Person.Gender.FEMALE)
+                .filter(p -> p.getSalary() >= 2000 && p.getSalary() <= 4000)
+                .collect(Collectors.groupingBy(p -> p.getDivision().getName(),
+                        Collectors.averagingDouble(Person::getSalary)));
+
+        Query.Compiled compiled = query.compile(table);
+        QueryResult single = compiled.execute();
+        QueryResult parallel = compiled.executeParallel();
+
+        assertEquals(expectedAvg.keySet().size(), single.getGroups().size());
+        for (Map.Entry<String, Double> entry : expectedAvg.entrySet()) {
+            assertEquals(entry.getValue(), single.get(entry.getKey(), Aggregate.AVG), 1e-9);
+            assertEquals(single.get(entry.getKey(), Aggregate.COUNT),
+                    parallel.get(entry.getKey(), Aggregate.COUNT), 0.0);
+            assertEquals(single.get(entry.getKey(), Aggregate.AVG),
+                    parallel.get(entry.getKey(), Aggregate.AVG), 1e-9);
+        }
+    }
+
+    @Test
+    void testUngroupedAggregates() {
+        QueryResult result = Query.builder()
+                .select(Aggregate.COUNT, Aggregate.SUM, Aggregate.MIN, Aggregate.MAX)
+                .build()
+                .compile(table)
+                .executeParallel();
+
+        double expectedSum = persons.stream().mapToDouble(Person::getSalary).sum();
+        assertEquals(persons.size(), result.get("ALL", Aggregate.COUNT), 0.0);
+        assertEquals(expectedSum, result.get("ALL", Aggregate.SUM), 1e-3);
+        assertEquals(1000.0, result.get("ALL", Aggregate.MIN), 0.0);
+        assertEquals(5999.0, result.get("ALL", Aggregate.MAX), 0.0);
+    }
+
+    @Test
+    void testUnknownDivisionAndMissingAggregate() {
+        QueryResult result = Query.builder()
+                .where(Filter.division("Unknown"))
+                .groupBy(GroupBy.GENDER)
+                .select(Aggregate.COUNT)
+                .build()
+                .compile(table)
+                .execute();
+
+        assertTrue(result.getGroups().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> result.get("MALE", Aggregate.SUM));
+        assertThrows(IllegalStateException.class, () -> Query.builder().build());
+    }
+}
@@ -0,0 +1,92 @@
+package shard;
+
+import lab4.csv.CsvParser;
+import lab4.shard.Shard;
+import lab4.shard.ShardCoordinator;
+import lab4.stats.RosterStatistics;
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Тесты для шардированной загрузки.
+ */
+class ShardCoordinatorTest {
+
+    private Path csvPath;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        CsvParser.clearDivisionCache();
+        StringBuilder csv = new StringBuilder("id;name;gender;birthDate;division;salary\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i + 1).append(";Employee").append(i).append(';')
+                    .append(i % 3 == 0 ? "Female" : "Male").append(";15.05.1980;D")
+                    .append(i % 5).append(';').append(1000 + i).append('\n');
+        }
+        csvPath = tempDir.resolve("roster.csv");
+        Files.write(csvPath, csv.toString().getBytes());
+    }
+
+    @Test
+    void testRangesCoverEveryRecordExactlyOnce() throws IOException, CsvValidationException {
+        RosterStatistics expected = new RosterStatistics();
+        new CsvParser().forEachPerson(csvPath.toString(), ';', expected);
+
+        List<Shard> shards = new ShardCoordinator(1, 997, List.of()).split(List.of(csvPath.toString()));
+        assertTrue(shards.size() > 10);
+
+        RosterStatistics merged = new RosterStatistics();
+        for (Shard shard : shards) {
+            RosterStatistics partial = new RosterStatistics();
+            new CsvParser().forEachPersonInRange(shard.getPath(), ';', shard.getStart(), shard.getEnd(), partial);
+            merged.merge(partial);
+        }
+
+        assertEquals(expected.getCount(), merged.getCount());
+        assertEquals(expected.getSalarySum(), merged.getSalarySum(), 1e-6);
+        assertEquals(expected.getDivisionCounts(), merged.getDivisionCounts());
+    }
+
+    @Test
+    void testStatisticsSerializationRoundTrip() throws IOException {
+        RosterStatistics statistics = new RosterStatistics();
+        new CsvParser().forEachPersonInRange(csvPath.toString(), ';', 0, Files.size(csvPath), statistics);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        statistics.writeTo(new DataOutputStream(bytes));
+        RosterStatistics copy = RosterStatistics.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(1000, copy.getCount());
+        assertEquals(statistics.getMinSalary(), copy.getMinSalary());
+        assertEquals(statistics.getMaxSalary(), copy.getMaxSalary());
+        assertEquals(statistics.getDivisionCounts(), copy.getDivisionCounts());
+    }
+
+    @Test
+    void testIngestInWorkerProcesses() throws IOException, InterruptedException {
+        ShardCoordinator coordinator = new ShardCoordinator(2, Files.size(csvPath) / 2 + 1, List.of("-Xshare:auto"));
+
+        RosterStatistics total = coordinator.ingest(List.of(csvPath.toString()), ';');
+
+        assertEquals(1000, total.getCount());
+        assertEquals(334, total.getFemaleCount());
+        assertEquals(5, total.getDivisionCounts().size());
+        assertEquals(1000.0, total.getMinSalary(), 0.0);
+    }
+}
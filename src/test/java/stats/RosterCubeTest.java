@@ -0,0 +1,74 @@
+package stats;
+
+import lab4.model.Division;
+import lab4.model.Person;
+import lab4.stats.RosterCube;
+import lab4.stats.RosterCube.Dimension;
+import lab4.stats.RosterCube.Slice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+/**
+ * Тесты для класса RosterCube.
+ */
+class RosterCubeTest {
+
+    private RosterCube cube;
+
+    @BeforeEach
+    void setUp() {
+        cube = new RosterCube(LocalDate.of(2020, 1, 1), 10, 10, 1000.0, 10);
+        Division it = new Division("IT");
+        Division hr = new Division("HR");
+        cube.accept(new Person(1L, "John", Person.Gender.MALE, LocalDate.of(1990, 6, 1), it, 5000.0));
+        cube.accept(new Person(2L, "Jane", Person.Gender.FEMALE, LocalDate.of(1985, 2, 7), it, 6500.0));
+        cube.accept(new Person(3L, "Bob", Person.Gender.MALE, LocalDate.of(1970, 10, 10), hr, 5200.0));
+        cube.accept(new Person(4L, "Ann", Person.Gender.FEMALE, LocalDate.of(1960, 1, 1), hr, 50000.0));
+    }
+
+    @Test
+    void testTotalsAndSlices() {
+        assertEquals(4, cube.count(Slice.all()));
+        assertEquals(66700.0, cube.salarySum(Slice.all()), 0.001);
+        assertEquals(2, cube.count(Slice.all().division("IT")));
+        assertEquals(1, cube.count(Slice.all().division("IT").gender(Person.Gender.MALE)));
+        assertEquals(5750.0, cube.averageSalary(Slice.all().division("IT")), 0.001);
+        assertEquals(0, cube.count(Slice.all().division("Unknown")));
+    }
+
+    @Test
+    void testRollUpByDimension() {
+        long[] byGender = cube.countsBy(Dimension.GENDER, Slice.all());
+        assertEquals(2, byGender[Person.Gender.MALE.ordinal()]);
+        assertEquals(2, byGender[Person.Gender.FEMALE.ordinal()]);
+
+        long[] byDivision = cube.countsBy(Dimension.DIVISION, Slice.all().gender(Person.Gender.FEMALE));
+        assertEquals(1, byDivision[cube.getDivisionNames().indexOf("HR")]);
+
+        // Зарплата 50000 попадает в последнюю открытую группу
+        long[] bySalary = cube.countsBy(Dimension.SALARY_BAND, Slice.all());
+        assertEquals(2, bySalary[5]);
+        assertEquals(1, bySalary[9]);
+    }
+
+    @Test
+    void testAgeBands() {
+        assertEquals(2, cube.ageBandOf(LocalDate.of(1990, 6, 1)));
+        assertEquals(1, cube.count(Slice.all().ageBand(6)));
+        assertEquals(50000.0, cube.salarySumsBy(Dimension.AGE_BAND, Slice.all())[6], 0.001);
+    }
+
+    @Test
+    void testGrowsWithManyDivisions() {
+        for (int i = 0; i < 40; i++) {
+            cube.accept(new Person(100L + i, "P" + i, Person.Gender.MALE,
+                    LocalDate.of(1990, 1, 1), new Division("D" + i), 1000.0));
+        }
+        assertEquals(44, cube.count(Slice.all()));
+        assertEquals(42, cube.getDivisionNames().size());
+        assertEquals(1, cube.count(Slice.all().division("D39")));
+    }
+}
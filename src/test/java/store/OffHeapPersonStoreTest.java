@@ -0,0 +1,109 @@
+package store;
+
+import lab4.csv.CsvParser;
+import lab4.model.Division;
+import lab4.model.Person;
+import lab4.store.OffHeapPersonStore;
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Тесты для класса OffHeapPersonStore.
+ */
+class OffHeapPersonStoreTest {
+
+    private OffHeapPersonStore store;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapPersonStore();
+        CsvParser.clearDivisionCache();
+    }
+
+    @Test
+    void testRoundTrip() {
+        Division division = new Division("Отдел кадров");
+        Person person = new Person(42L, "Мария Иванова", Person.Gender.FEMALE,
+                LocalDate.of(1985, 12, 31), division, 6543.21);
+
+        int index = store.add(person);
+
+        assertEquals(0, index);
+        assertEquals(1, store.size());
+        assertEquals(42L, store.getId(0));
+        assertEquals("Мария Иванова", store.getName(0));
+        assertEquals(Person.Gender.FEMALE, store.getGender(0));
+        assertEquals(LocalDate.of(1985, 12, 31), store.getBirthDate(0));
+        assertSame(division, store.getDivision(0));
+        assertEquals(6543.21, store.getSalary(0), 0.0);
+        assertEquals(person, store.toPerson(0));
+    }
+
+    @Test
+    void testAddFromPrimitiveFields() {
+        Division division = new Division("IT");
+        int index = store.add(7L, "Иван", Person.Gender.MALE,
+                (int) LocalDate.of(1990, 1, 2).toEpochDay(), division, 1234.5);
+
+        assertEquals(new Person(7L, "Иван", Person.Gender.MALE, LocalDate.of(1990, 1, 2), division, 1234.5),
+                store.toPerson(index));
+        assertThrows(IllegalArgumentException.class, () ->
+                store.add(8L, null, Person.Gender.MALE, 0, division, 1.0));
+    }
+
+    @Test
+    void testManyRecordsSpanBlocks() {
+        Division it = new Division("IT");
+        int total = 70_000;
+        for (int i = 0; i < total; i++) {
+            store.add(new Person(i + 1L, "Employee " + i, Person.Gender.MALE,
+                    LocalDate.of(1990, 1, 1), it, (double) i));
+        }
+
+        assertEquals(total, store.size());
+        assertEquals(1, store.getDivisionCount());
+        assertEquals("Employee 69999", store.getName(total - 1));
+        assertEquals(69999.0, store.getSalary(total - 1), 0.0);
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getId(total));
+    }
+
+    @Test
+    void testClosedStoreRejectsAccess() {
+        Person person = new Person(1L, "John", Person.Gender.MALE,
+                LocalDate.of(1990, 1, 1), new Division("IT"), 1000.0);
+        store.add(person);
+
+        store.close();
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.getName(0));
+        assertThrows(IllegalStateException.class, () -> store.size());
+        assertThrows(IllegalStateException.class, () -> store.add(person));
+    }
+
+    @Test
+    void testParseCsvFileOffHeap() throws IOException, CsvValidationException {
+        Path csvPath = tempDir.resolve("offheap.csv");
+        Files.write(csvPath, ("id;name;gender;birthDate;division;salary\n" +
+                "1;John;Male;15.05.1970;IT;5000\n" +
+                "2;Jane;Female;07.02.1983;HR;6000").getBytes());
+
+        OffHeapPersonStore parsed = new CsvParser().parseCsvFileOffHeap(csvPath.toString(), ';');
+
+        assertEquals(2, parsed.size());
+        assertEquals("Jane", parsed.getName(1));
+        assertEquals("HR", parsed.getDivision(1).getName());
+        assertEquals(2, parsed.getDivisionCount());
+    }
+}
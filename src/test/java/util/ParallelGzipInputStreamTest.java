@@ -0,0 +1,145 @@
+package util;
+
+import lab4.util.ParallelGzipInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Тесты для класса ParallelGzipInputStream.
+ */
+class ParallelGzipInputStreamTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMultiMemberFileMatchesOriginal() throws IOException {
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Random random = new Random(1);
+        for (int member = 0; member < 50; member++) {
+            StringBuilder chunk = new StringBuilder();
+            for (int i = 0; i < 500; i++) {
+                chunk.append(member).append(';').append(random.nextInt()).append('\n');
+            }
+            byte[] bytes = chunk.toString().getBytes();
+            original.write(bytes);
+            compressed.write(gzip(bytes));
+        }
+        Path file = tempDir.resolve("multi.csv.gz");
+        Files.write(file, compressed.toByteArray());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try (InputStream in = ParallelGzipInputStream.open(file.toFile(), executor, 4)) {
+            assertArrayEquals(original.toByteArray(), in.readAllBytes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSingleMemberAndTrailingGarbage() throws IOException {
+        byte[] content = "id;name\n1;John\n".getBytes();
+        Path single = tempDir.resolve("single.gz");
+        Files.write(single, gzip(content));
+        try (InputStream in = ParallelGzipInputStream.open(single.toFile())) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+
+        ByteArrayOutputStream withGarbage = new ByteArrayOutputStream();
+        withGarbage.write(gzip(content));
+        withGarbage.write(gzip(content));
+        withGarbage.write(new byte[16]);
+        Path padded = tempDir.resolve("padded.gz");
+        Files.write(padded, withGarbage.toByteArray());
+        try (InputStream in = ParallelGzipInputStream.open(padded.toFile())) {
+            assertEquals(content.length * 2, in.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void testCorruptedFirstMemberFails() throws IOException {
+        byte[] first = gzip("first\n".getBytes());
+        first[first.length - 5] ^= 0x55; // Портим CRC32 в трейлере
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(first);
+        data.write(gzip("second\n".getBytes()));
+        Path file = tempDir.resolve("corrupted.gz");
+        Files.write(file, data.toByteArray());
+
+        try (InputStream in = ParallelGzipInputStream.open(file.toFile())) {
+            assertThrows(IOException.class, in::readAllBytes);
+        }
+    }
+
+    @Test
+    void testCorruptedMiddleMemberFails() throws IOException {
+        byte[] second = gzip("second\n".getBytes());
+        second[second.length - 5] ^= 0x55; // Портим CRC32 в трейлере второго члена
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(gzip("first\n".getBytes()));
+        data.write(second);
+        data.write(gzip("third\n".getBytes()));
+        Path file = tempDir.resolve("corrupted-middle.gz");
+        Files.write(file, data.toByteArray());
+
+        try (InputStream in = ParallelGzipInputStream.open(file.toFile())) {
+            assertThrows(IOException.class, in::readAllBytes);
+        }
+    }
+
+    @Test
+    void testTruncatedLastMemberFails() throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        data.write(gzip("first\n".getBytes()));
+        byte[] second = gzip("second line that will be cut\n".getBytes());
+        data.write(second, 0, second.length - 6);
+        Path file = tempDir.resolve("truncated.gz");
+        Files.write(file, data.toByteArray());
+
+        try (InputStream in = ParallelGzipInputStream.open(file.toFile())) {
+            assertThrows(IOException.class, in::readAllBytes);
+        }
+    }
+
+    @Test
+    void testMembersLargerThanLimitAreStreamed() throws IOException {
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Random random = new Random(2);
+        for (int member = 0; member < 5; member++) {
+            byte[] bytes = new byte[10_000 + member * 3_000];
+            random.nextBytes(bytes);
+            original.write(bytes);
+            compressed.write(gzip(bytes));
+        }
+        Path file = tempDir.resolve("large-members.gz");
+        Files.write(file, compressed.toByteArray());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (InputStream in = ParallelGzipInputStream.open(file.toFile(), executor, 3, 12_000)) {
+            assertArrayEquals(original.toByteArray(), in.readAllBytes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+}